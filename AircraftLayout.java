@@ -0,0 +1,90 @@
+package com.smartwings.model;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Aircraft Layout
+ * Shared, immutable description of an aircraft type: its code, cabin seat
+ * counts and seat plan. One instance exists per type, so flights reference
+ * the flyweight instead of carrying their own copy of the type string, and
+ * capacity checks compare ints instead of parsing strings.
+ *
+ * Types without a defined seat plan resolve to a bare layout that only
+ * carries the code. Define layouts at startup, before flights are loaded;
+ * flights keep the layout they resolved.
+ */
+public final class AircraftLayout {
+
+    private static final ConcurrentHashMap<String, AircraftLayout> LAYOUTS = new ConcurrentHashMap<>();
+
+    private final String code;
+    private final SeatLayout seatLayout;
+    private final int[] seats = new int[TravelClass.COUNT];
+
+    private AircraftLayout(String code, SeatLayout seatLayout) {
+        this.code = code;
+        this.seatLayout = seatLayout;
+        if (seatLayout != null) {
+            for (TravelClass travelClass : TravelClass.values()) {
+                seats[travelClass.ordinal()] = seatLayout.seats(travelClass);
+            }
+        }
+    }
+
+    // Registry
+    /**
+     * Registers the seat plan of an aircraft type, replacing any earlier definition
+     */
+    public static AircraftLayout define(String code, SeatLayout seatLayout) {
+        AircraftLayout layout = new AircraftLayout(code, seatLayout);
+        LAYOUTS.put(code, layout);
+        return layout;
+    }
+
+    /**
+     * Shared layout for an aircraft type code, or null for a null code
+     */
+    public static AircraftLayout of(String code) {
+        if (code == null) {
+            return null;
+        }
+        AircraftLayout layout = LAYOUTS.get(code);
+        return layout != null ? layout : LAYOUTS.computeIfAbsent(code, c -> new AircraftLayout(c, null));
+    }
+
+    // Accessors
+    public String getCode() { return code; }
+
+    /**
+     * Seat plan, or null if none is defined for the type
+     */
+    public SeatLayout getSeatLayout() { return seatLayout; }
+
+    public boolean hasSeatLayout() { return seatLayout != null; }
+
+    /**
+     * Seats of a cabin per the seat plan, or 0 without one
+     */
+    public int seats(TravelClass travelClass) { return seats[travelClass.ordinal()]; }
+
+    /**
+     * Whether the flight's cabin capacities match the seat plan. Types
+     * without a seat plan accept any capacities.
+     */
+    public boolean fits(Flight flight) {
+        if (seatLayout == null) {
+            return true;
+        }
+        for (TravelClass travelClass : TravelClass.values()) {
+            if (flight.getSeats(travelClass) != seats[travelClass.ordinal()]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return code;
+    }
+}
@@ -0,0 +1,55 @@
+package com.smartwings.model;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Booking Entity
+ * Seats booked in one cabin of a flight; the owning side of Flight's
+ * bookings association
+ */
+@Entity
+@Table(name = "bookings", indexes = @Index(name = "idx_bookings_flight_id", columnList = "flight_id"))
+public class Booking {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_id")
+    @SequenceGenerator(name = "booking_id", sequenceName = "booking_id_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "flight_id", nullable = false)
+    private Flight flight;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "travel_class", nullable = false, length = 20)
+    private TravelClass travelClass;
+
+    @Column(name = "seats", nullable = false)
+    private int seats;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public Booking() {}
+
+    public Booking(Flight flight, TravelClass travelClass, int seats) {
+        this.flight = flight;
+        this.travelClass = travelClass;
+        this.seats = seats;
+    }
+
+    public Long getId() { return id; }
+    public Flight getFlight() { return flight; }
+    public void setFlight(Flight flight) { this.flight = flight; }
+    public TravelClass getTravelClass() { return travelClass; }
+    public void setTravelClass(TravelClass travelClass) { this.travelClass = travelClass; }
+    public int getSeats() { return seats; }
+    public void setSeats(int seats) { this.seats = seats; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
@@ -0,0 +1,87 @@
+package com.smartwings.model;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Code Dictionary
+ * Shared bidirectional table between the codes of one kind (airports, cities,
+ * airlines) and small dense int ids, so every flight refers to one copy of
+ * each string and in-memory indexes key on ints. Ids are assigned on first
+ * sight, never reused, and start at 0; NONE stands for a null code.
+ *
+ * Lookups in both directions are lock-free; assigning a new id is serialized.
+ */
+public final class CodeDictionary {
+
+    public static final int NONE = -1;
+
+    public static final CodeDictionary AIRPORTS = new CodeDictionary();
+    public static final CodeDictionary CITIES = new CodeDictionary();
+    public static final CodeDictionary AIRLINES = new CodeDictionary();
+
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] codes = new String[64];
+    private volatile int size;
+
+    /**
+     * Id of a code, assigning the next one if the code is new
+     */
+    public int encode(String code) {
+        if (code == null) {
+            return NONE;
+        }
+        Integer id = ids.get(code);
+        return id != null ? id : assign(code);
+    }
+
+    /**
+     * Id of a code, or NONE if it has never been encoded
+     */
+    public int find(String code) {
+        if (code == null) {
+            return NONE;
+        }
+        Integer id = ids.get(code);
+        return id == null ? NONE : id;
+    }
+
+    /**
+     * Code of an id; null for NONE
+     */
+    public String decode(int id) {
+        return id == NONE ? null : codes[id];
+    }
+
+    /**
+     * Number of ids assigned so far; every id is below it
+     */
+    public int size() {
+        return size;
+    }
+
+    private synchronized int assign(String code) {
+        Integer existing = ids.get(code);
+        if (existing != null) {
+            return existing;
+        }
+        int id = size;
+        String[] table = codes;
+        if (id == table.length) {
+            table = Arrays.copyOf(table, id * 2);
+        }
+        table[id] = code;
+        codes = table;
+        size = id + 1;
+        // Published last so a reader that finds the id can always decode it
+        ids.put(code, id);
+        return id;
+    }
+
+    /**
+     * Packs two ids into one key, e.g. origin and destination of a route
+     */
+    public static long pair(int first, int second) {
+        return ((long) first << 32) | (second & 0xFFFFFFFFL);
+    }
+}
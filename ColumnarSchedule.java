@@ -0,0 +1,534 @@
+package com.smartwings.schedule;
+
+import com.smartwings.model.CodeDictionary;
+import com.smartwings.model.Flight;
+import com.smartwings.model.FlightStatus;
+import com.smartwings.model.Money;
+import com.smartwings.model.TravelClass;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Columnar Schedule
+ * Off-heap store of the flight schedule, one fixed-width column per Flight
+ * field in direct ByteBuffers. Codes are held as CodeDictionary ids, times as
+ * epoch seconds (UTC as recorded) and timestamps as epoch microseconds, about
+ * 140 bytes a flight. The heap only holds the id-to-row table and a stack of
+ * free rows, all primitive arrays, so the GC has nothing to trace however
+ * large the schedule grows. A removed flight's row is cleared and reused by
+ * the next flight added.
+ *
+ * Scans read the columns in place and write matching rows into a caller
+ * buffer without allocating; a Flight is only materialized for a selected
+ * row. Writers are serialized. A per-row sequence number lets materialize
+ * retry instead of returning a row caught mid-update; scans may see a row
+ * mid-update and should re-check it after materializing. Notes are not kept.
+ */
+public class ColumnarSchedule {
+
+    public static final int FLIGHT_NUMBER_WIDTH = 10;
+
+    private static final long NO_TIME = Long.MIN_VALUE;
+    private static final long FREE_ID = 0L;
+    private static final long TOMBSTONE = Long.MIN_VALUE;
+    private static final byte NO_STATUS = -1;
+    private static final FlightStatus[] STATUSES = FlightStatus.values();
+    private static final VarHandle SEQUENCE =
+            MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+    private final int capacity;
+    private volatile int size;
+
+    // Column widths in bytes, in the order of columns()
+    static final int[] COLUMN_WIDTHS = {
+            Integer.BYTES,                        // sequences
+            Long.BYTES,                           // ids
+            FLIGHT_NUMBER_WIDTH,                  // flight numbers
+            Integer.BYTES,                        // airlines
+            Integer.BYTES,                        // origin airports
+            Integer.BYTES,                        // origin cities
+            Integer.BYTES,                        // destination airports
+            Integer.BYTES,                        // destination cities
+            Long.BYTES,                           // departures
+            Long.BYTES,                           // arrivals
+            Integer.BYTES,                        // aircraft types
+            Long.BYTES * TravelClass.COUNT,       // fares
+            Short.BYTES * TravelClass.COUNT,      // seats
+            Short.BYTES * TravelClass.COUNT,      // available
+            Byte.BYTES,                           // statuses
+            Integer.BYTES,                        // gates
+            Integer.BYTES,                        // terminals
+            Long.BYTES,                           // created at
+            Long.BYTES,                           // updated at
+            Long.BYTES                            // versions
+    };
+
+    // Columns
+    private final ByteBuffer sequences;
+    private final ByteBuffer ids;
+    private final ByteBuffer flightNumbers;
+    private final ByteBuffer airlines;
+    private final ByteBuffer originAirports;
+    private final ByteBuffer originCities;
+    private final ByteBuffer destinationAirports;
+    private final ByteBuffer destinationCities;
+    private final ByteBuffer departures;
+    private final ByteBuffer arrivals;
+    private final ByteBuffer aircraftTypes;
+    private final ByteBuffer fares;
+    private final ByteBuffer seats;
+    private final ByteBuffer available;
+    private final ByteBuffer statuses;
+    private final ByteBuffer gates;
+    private final ByteBuffer terminals;
+    private final ByteBuffer createdAt;
+    private final ByteBuffer updatedAt;
+    private final ByteBuffer versions;
+
+    // Low-cardinality columns local to the store
+    private final CodeDictionary aircraftTypeCodes;
+    private final CodeDictionary gateCodes;
+    private final CodeDictionary terminalCodes;
+
+    // Flight id to row + 1, open addressing; id 0 marks an empty slot and a
+    // value of 0 an entry still being added. A removed entry leaves a
+    // tombstone so that probes for ids stored past it still reach them; the
+    // table is rebuilt once tombstones fill an eighth of it, so every probe
+    // still ends at an empty slot.
+    private volatile RowTable rowTable;
+
+    // Cleared rows below size, reused before the store grows; guarded by this
+    private int[] freeRows = new int[0];
+    private int freeCount;
+
+    public ColumnarSchedule(int capacity) {
+        this(capacity, 0, allocate(capacity), new CodeDictionary(), new CodeDictionary(), new CodeDictionary());
+    }
+
+    /**
+     * Store over existing columns holding size rows, e.g. mapped from a snapshot
+     */
+    ColumnarSchedule(int capacity, int size, ByteBuffer[] columns, CodeDictionary aircraftTypeCodes,
+                     CodeDictionary gateCodes, CodeDictionary terminalCodes) {
+        this.capacity = capacity;
+        this.sequences = columns[0];
+        this.ids = columns[1];
+        this.flightNumbers = columns[2];
+        this.airlines = columns[3];
+        this.originAirports = columns[4];
+        this.originCities = columns[5];
+        this.destinationAirports = columns[6];
+        this.destinationCities = columns[7];
+        this.departures = columns[8];
+        this.arrivals = columns[9];
+        this.aircraftTypes = columns[10];
+        this.fares = columns[11];
+        this.seats = columns[12];
+        this.available = columns[13];
+        this.statuses = columns[14];
+        this.gates = columns[15];
+        this.terminals = columns[16];
+        this.createdAt = columns[17];
+        this.updatedAt = columns[18];
+        this.versions = columns[19];
+        this.aircraftTypeCodes = aircraftTypeCodes;
+        this.gateCodes = gateCodes;
+        this.terminalCodes = terminalCodes;
+        int slots = Integer.highestOneBit(Math.max(capacity + capacity / 3, 1)) << 1;
+        RowTable table = new RowTable(slots);
+        for (int row = 0; row < size; row++) {
+            long id = ids.getLong(row * Long.BYTES);
+            if (id == FREE_ID) {
+                pushFreeRow(row);
+            } else {
+                table.put(id, row);
+            }
+        }
+        this.rowTable = table;
+        this.size = size;
+    }
+
+    private static ByteBuffer[] allocate(int capacity) {
+        ByteBuffer[] columns = new ByteBuffer[COLUMN_WIDTHS.length];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = ByteBuffer.allocateDirect(Math.multiplyExact(capacity, COLUMN_WIDTHS[i]))
+                    .order(ByteOrder.nativeOrder());
+        }
+        return columns;
+    }
+
+    ByteBuffer[] columns() {
+        return new ByteBuffer[] {
+                sequences, ids, flightNumbers, airlines, originAirports, originCities, destinationAirports,
+                destinationCities, departures, arrivals, aircraftTypes, fares, seats, available, statuses,
+                gates, terminals, createdAt, updatedAt, versions
+        };
+    }
+
+    CodeDictionary aircraftTypeCodes() { return aircraftTypeCodes; }
+    CodeDictionary gateCodes() { return gateCodes; }
+    CodeDictionary terminalCodes() { return terminalCodes; }
+
+    // Updates
+    /**
+     * Stores a flight, overwriting its row if the flight is already stored.
+     * Returns the row.
+     */
+    public synchronized int put(Flight flight) {
+        long id = flight.getId();
+        if (id == FREE_ID || id == TOMBSTONE) {
+            throw new IllegalArgumentException("Flight id " + id + " cannot be stored");
+        }
+        int row = rowOf(id);
+        boolean added = row < 0;
+        if (added) {
+            if (freeCount > 0) {
+                row = freeRows[--freeCount];
+            } else if (size == capacity) {
+                throw new IllegalStateException("Schedule store is full (" + capacity + " flights)");
+            } else {
+                row = size;
+            }
+        }
+        int sequence = beginWrite(row);
+        ids.putLong(row * Long.BYTES, id);
+        putFlightNumber(row, flight.getFlightNumber());
+        airlines.putInt(row * Integer.BYTES, flight.getAirlineId());
+        originAirports.putInt(row * Integer.BYTES, flight.getOriginAirportId());
+        originCities.putInt(row * Integer.BYTES, flight.getOriginCityId());
+        destinationAirports.putInt(row * Integer.BYTES, flight.getDestinationAirportId());
+        destinationCities.putInt(row * Integer.BYTES, flight.getDestinationCityId());
+        departures.putLong(row * Long.BYTES, epochSecond(flight.getDepartureTime()));
+        arrivals.putLong(row * Long.BYTES, epochSecond(flight.getArrivalTime()));
+        aircraftTypes.putInt(row * Integer.BYTES, aircraftTypeCodes.encode(flight.getAircraftType()));
+        for (TravelClass travelClass : TravelClass.values()) {
+            int cabin = row * TravelClass.COUNT + travelClass.ordinal();
+            fares.putLong(cabin * Long.BYTES, flight.getFareForClass(travelClass));
+            seats.putShort(cabin * Short.BYTES, toShort(flight.getSeats(travelClass)));
+            available.putShort(cabin * Short.BYTES, toShort(flight.getAvailable(travelClass)));
+        }
+        FlightStatus status = flight.getStatus();
+        statuses.put(row, status == null ? NO_STATUS : (byte) status.ordinal());
+        gates.putInt(row * Integer.BYTES, gateCodes.encode(flight.getGate()));
+        terminals.putInt(row * Integer.BYTES, terminalCodes.encode(flight.getTerminal()));
+        createdAt.putLong(row * Long.BYTES, epochMicros(flight.getCreatedAt()));
+        updatedAt.putLong(row * Long.BYTES, epochMicros(flight.getUpdatedAt()));
+        versions.putLong(row * Long.BYTES, flight.getVersion() == null ? 0L : flight.getVersion());
+        endWrite(row, sequence);
+        if (added) {
+            rowTable.put(id, row);
+            if (row == size) {
+                size = row + 1;
+            }
+        }
+        return row;
+    }
+
+    /**
+     * Removes a flight and clears its row for reuse; false if the flight is
+     * not stored. A scan running meanwhile may still select the row, so, as
+     * after any concurrent update, re-check rows after materializing.
+     */
+    public synchronized boolean remove(long flightId) {
+        int row = rowOf(flightId);
+        if (row < 0) {
+            return false;
+        }
+        RowTable table = rowTable;
+        table.remove(flightId);
+        if (table.tombstones > table.keys.length >> 3) {
+            rowTable = table.rebuilt();
+        }
+        int sequence = beginWrite(row);
+        ids.putLong(row * Long.BYTES, FREE_ID);
+        putFlightNumber(row, null);
+        airlines.putInt(row * Integer.BYTES, CodeDictionary.NONE);
+        originAirports.putInt(row * Integer.BYTES, CodeDictionary.NONE);
+        originCities.putInt(row * Integer.BYTES, CodeDictionary.NONE);
+        destinationAirports.putInt(row * Integer.BYTES, CodeDictionary.NONE);
+        destinationCities.putInt(row * Integer.BYTES, CodeDictionary.NONE);
+        departures.putLong(row * Long.BYTES, NO_TIME);
+        arrivals.putLong(row * Long.BYTES, NO_TIME);
+        aircraftTypes.putInt(row * Integer.BYTES, CodeDictionary.NONE);
+        for (int cabin = row * TravelClass.COUNT; cabin < (row + 1) * TravelClass.COUNT; cabin++) {
+            fares.putLong(cabin * Long.BYTES, Money.NONE);
+            seats.putShort(cabin * Short.BYTES, (short) 0);
+            available.putShort(cabin * Short.BYTES, (short) 0);
+        }
+        statuses.put(row, NO_STATUS);
+        gates.putInt(row * Integer.BYTES, CodeDictionary.NONE);
+        terminals.putInt(row * Integer.BYTES, CodeDictionary.NONE);
+        createdAt.putLong(row * Long.BYTES, NO_TIME);
+        updatedAt.putLong(row * Long.BYTES, NO_TIME);
+        versions.putLong(row * Long.BYTES, 0L);
+        endWrite(row, sequence);
+        pushFreeRow(row);
+        return true;
+    }
+
+    private void pushFreeRow(int row) {
+        if (freeCount == freeRows.length) {
+            freeRows = Arrays.copyOf(freeRows, Math.max(16, freeCount * 2));
+        }
+        freeRows[freeCount++] = row;
+    }
+
+    /**
+     * Updates one cabin's availability in place; false if the flight is not stored
+     */
+    public synchronized boolean updateAvailability(long flightId, TravelClass travelClass, int seatsAvailable) {
+        int row = rowOf(flightId);
+        if (row < 0) {
+            return false;
+        }
+        int sequence = beginWrite(row);
+        available.putShort((row * TravelClass.COUNT + travelClass.ordinal()) * Short.BYTES, toShort(seatsAvailable));
+        endWrite(row, sequence);
+        return true;
+    }
+
+    // Lookups
+    /**
+     * Rows in use, including removed rows not yet reused; scans end here
+     */
+    public int size() { return size; }
+    public int capacity() { return capacity; }
+
+    /**
+     * Row of a flight, or -1 if it is not stored
+     */
+    public int rowOf(long flightId) {
+        RowTable table = rowTable;
+        long[] keys = table.keys;
+        int mask = keys.length - 1;
+        for (int slot = mix(flightId) & mask; ; slot = (slot + 1) & mask) {
+            long key = keys[slot];
+            if (key == flightId) {
+                return table.values[slot] - 1;
+            }
+            if (key == 0) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Rows on the route departing in [fromSecond, toSecond) with at least the
+     * requested seats and a fare in the cabin, scanning from startRow. Fills
+     * rows and returns how many were found; if the buffer fills up, continue
+     * from the row after the last one returned.
+     */
+    public int select(int origin, int destination, long fromSecond, long toSecond, TravelClass travelClass,
+                      int seatCount, int startRow, int[] rows) {
+        int end = size;
+        int count = 0;
+        int cabin = travelClass.ordinal();
+        for (int row = startRow; row < end && count < rows.length; row++) {
+            if (originAirports.getInt(row * Integer.BYTES) != origin
+                    || destinationAirports.getInt(row * Integer.BYTES) != destination) {
+                continue;
+            }
+            long departs = departures.getLong(row * Long.BYTES);
+            if (departs < fromSecond || departs >= toSecond) {
+                continue;
+            }
+            int slot = row * TravelClass.COUNT + cabin;
+            if (available.getShort(slot * Short.BYTES) >= seatCount
+                    && Money.isPresent(fares.getLong(slot * Long.BYTES))) {
+                rows[count++] = row;
+            }
+        }
+        return count;
+    }
+
+    // Row accessors; allocation-free
+    public long id(int row) { return ids.getLong(row * Long.BYTES); }
+    public int airline(int row) { return airlines.getInt(row * Integer.BYTES); }
+    public int originAirport(int row) { return originAirports.getInt(row * Integer.BYTES); }
+    public int destinationAirport(int row) { return destinationAirports.getInt(row * Integer.BYTES); }
+    public long departureSecond(int row) { return departures.getLong(row * Long.BYTES); }
+    public long arrivalSecond(int row) { return arrivals.getLong(row * Long.BYTES); }
+    public long updatedAtMicros(int row) { return updatedAt.getLong(row * Long.BYTES); }
+    public long version(int row) { return versions.getLong(row * Long.BYTES); }
+
+    public long fare(int row, TravelClass travelClass) {
+        return fares.getLong((row * TravelClass.COUNT + travelClass.ordinal()) * Long.BYTES);
+    }
+
+    public int seats(int row, TravelClass travelClass) {
+        return seats.getShort((row * TravelClass.COUNT + travelClass.ordinal()) * Short.BYTES);
+    }
+
+    public int available(int row, TravelClass travelClass) {
+        return available.getShort((row * TravelClass.COUNT + travelClass.ordinal()) * Short.BYTES);
+    }
+
+    /**
+     * A detached Flight holding a consistent copy of the row
+     */
+    public Flight materialize(int row) {
+        for (;;) {
+            int sequence = (int) SEQUENCE.getAcquire(sequences, row * Integer.BYTES);
+            if ((sequence & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            Flight flight = read(row);
+            VarHandle.loadLoadFence();
+            if ((int) SEQUENCE.getOpaque(sequences, row * Integer.BYTES) == sequence) {
+                return flight;
+            }
+        }
+    }
+
+    private Flight read(int row) {
+        Flight flight = new Flight();
+        flight.setId(ids.getLong(row * Long.BYTES));
+        flight.setFlightNumber(getFlightNumber(row));
+        flight.setAirline(CodeDictionary.AIRLINES.decode(airlines.getInt(row * Integer.BYTES)));
+        flight.setOriginAirport(CodeDictionary.AIRPORTS.decode(originAirports.getInt(row * Integer.BYTES)));
+        flight.setOriginCity(CodeDictionary.CITIES.decode(originCities.getInt(row * Integer.BYTES)));
+        flight.setDestinationAirport(CodeDictionary.AIRPORTS.decode(destinationAirports.getInt(row * Integer.BYTES)));
+        flight.setDestinationCity(CodeDictionary.CITIES.decode(destinationCities.getInt(row * Integer.BYTES)));
+        flight.setDepartureTime(toTime(departures.getLong(row * Long.BYTES)));
+        flight.setArrivalTime(toTime(arrivals.getLong(row * Long.BYTES)));
+        flight.setAircraftType(aircraftTypeCodes.decode(aircraftTypes.getInt(row * Integer.BYTES)));
+        for (TravelClass travelClass : TravelClass.values()) {
+            int cabin = row * TravelClass.COUNT + travelClass.ordinal();
+            flight.setFare(travelClass, fares.getLong(cabin * Long.BYTES));
+            flight.setSeats(travelClass, seats.getShort(cabin * Short.BYTES));
+            flight.setAvailable(travelClass, available.getShort(cabin * Short.BYTES));
+        }
+        byte status = statuses.get(row);
+        flight.setStatus(status == NO_STATUS ? null : STATUSES[status]);
+        flight.setGate(gateCodes.decode(gates.getInt(row * Integer.BYTES)));
+        flight.setTerminal(terminalCodes.decode(terminals.getInt(row * Integer.BYTES)));
+        flight.setCreatedAt(fromMicros(createdAt.getLong(row * Long.BYTES)));
+        flight.setUpdatedAt(fromMicros(updatedAt.getLong(row * Long.BYTES)));
+        flight.setVersion(versions.getLong(row * Long.BYTES));
+        return flight;
+    }
+
+    // Row sequence numbers: odd while the row is being written
+    private int beginWrite(int row) {
+        int sequence = (int) SEQUENCE.get(sequences, row * Integer.BYTES);
+        SEQUENCE.setVolatile(sequences, row * Integer.BYTES, sequence + 1);
+        return sequence;
+    }
+
+    private void endWrite(int row, int sequence) {
+        SEQUENCE.setRelease(sequences, row * Integer.BYTES, sequence + 2);
+    }
+
+    // Id to row table; written only under the store's lock
+    private static final class RowTable {
+        final long[] keys;
+        final int[] values;
+        int tombstones;
+
+        RowTable(int slots) {
+            this.keys = new long[slots];
+            this.values = new int[slots];
+        }
+
+        // The id must not be in the table; takes the first free or tombstoned slot
+        void put(long id, int row) {
+            int mask = keys.length - 1;
+            int slot = mix(id) & mask;
+            while (keys[slot] != FREE_ID && keys[slot] != TOMBSTONE) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == TOMBSTONE) {
+                tombstones--;
+            }
+            values[slot] = row + 1;
+            keys[slot] = id;
+        }
+
+        // The id must be in the table
+        void remove(long id) {
+            int mask = keys.length - 1;
+            int slot = mix(id) & mask;
+            while (keys[slot] != id) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = TOMBSTONE;
+            values[slot] = 0;
+            tombstones++;
+        }
+
+        // A copy without tombstones; readers keep probing this table until
+        // the copy is published
+        RowTable rebuilt() {
+            RowTable table = new RowTable(keys.length);
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] != FREE_ID && keys[slot] != TOMBSTONE) {
+                    table.put(keys[slot], values[slot] - 1);
+                }
+            }
+            return table;
+        }
+    }
+
+    private static int mix(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    // Encoding
+    private void putFlightNumber(int row, String flightNumber) {
+        int at = row * FLIGHT_NUMBER_WIDTH;
+        int length = flightNumber == null ? 0 : flightNumber.length();
+        if (length > FLIGHT_NUMBER_WIDTH) {
+            throw new IllegalArgumentException("Flight number " + flightNumber + " is too long");
+        }
+        for (int i = 0; i < FLIGHT_NUMBER_WIDTH; i++) {
+            char c = i < length ? flightNumber.charAt(i) : 0;
+            if (c > 0x7F) {
+                throw new IllegalArgumentException("Flight number " + flightNumber + " is not ASCII");
+            }
+            flightNumbers.put(at + i, (byte) c);
+        }
+    }
+
+    private String getFlightNumber(int row) {
+        int at = row * FLIGHT_NUMBER_WIDTH;
+        char[] chars = new char[FLIGHT_NUMBER_WIDTH];
+        int length = 0;
+        while (length < FLIGHT_NUMBER_WIDTH && flightNumbers.get(at + length) != 0) {
+            chars[length] = (char) flightNumbers.get(at + length);
+            length++;
+        }
+        return length == 0 ? null : new String(chars, 0, length);
+    }
+
+    private static short toShort(int count) {
+        if (count < Short.MIN_VALUE || count > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Seat count " + count + " does not fit the column");
+        }
+        return (short) count;
+    }
+
+    static long epochSecond(LocalDateTime time) {
+        return time == null ? NO_TIME : time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    static LocalDateTime toTime(long epochSecond) {
+        return epochSecond == NO_TIME ? null : LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
+    static long epochMicros(LocalDateTime time) {
+        return time == null ? NO_TIME : time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    static LocalDateTime fromMicros(long micros) {
+        return micros == NO_TIME ? null : LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,137 @@
+package com.smartwings.pricing;
+
+import com.smartwings.model.Flight;
+import com.smartwings.model.Money;
+import com.smartwings.model.TravelClass;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Dynamic Pricing Engine
+ * Live per-cabin fares computed by a FarePolicy from the cabin's load factor
+ * and the time left to departure. Fares are memoized per flight and cabin
+ * together with the bucket and the base fare they were computed from; a
+ * lookup only re-runs the policy when either has moved, so search fan-out
+ * pays a few reads per cabin and no allocation.
+ *
+ * The stored column fare is the base fare. Because every memoized fare
+ * carries the base fare it came from, a base fare change takes effect on the
+ * next lookup, and a lookup racing with one cannot leave a stale fare behind.
+ * Departed flights are dropped from the memo: at lookup, and by a sweep that
+ * runs on the calling thread at most every SWEEP_INTERVAL_SECONDS.
+ */
+public class DynamicPricingEngine {
+
+    public static final long SWEEP_INTERVAL_SECONDS = 15 * 60;
+
+    private final FarePolicy policy;
+    private final Clock clock;
+    private final ZoneOffset offset;
+    private final Map<Long, Memo> memo = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweep = new AtomicLong(Long.MIN_VALUE);
+
+    public DynamicPricingEngine(FarePolicy policy, Clock clock, ZoneOffset offset) {
+        this.policy = policy;
+        this.clock = clock;
+        this.offset = offset;
+    }
+
+    /**
+     * Live fare in Money minor units, or Money.NONE if the cabin has no base fare
+     */
+    public long fareFor(Flight flight, TravelClass travelClass) {
+        long baseFare = flight.getFareForClass(travelClass);
+        if (!Money.isPresent(baseFare)) {
+            return Money.NONE;
+        }
+        long now = clock.millis() / 1000;
+        sweepIfDue(now);
+        long departure = flight.getDepartureTime().toEpochSecond(offset);
+        long minutesToDeparture = Math.max(0, (departure - now) / 60);
+        int bucket = policy.bucket(travelClass, flight.getSeats(travelClass),
+                flight.getAvailable(travelClass), minutesToDeparture);
+        if (departure <= now) {
+            memo.remove(flight.getId());
+            return policy.fare(travelClass, baseFare, bucket);
+        }
+
+        Memo flightMemo = memo.get(flight.getId());
+        if (flightMemo == null || flightMemo.departure != departure) {
+            // New, or rescheduled since it was memoized
+            flightMemo = new Memo(departure);
+            memo.put(flight.getId(), flightMemo);
+        }
+        int cabin = travelClass.ordinal();
+        Entry entry = flightMemo.cabins.get(cabin);
+        if (entry != null && entry.bucket == bucket && entry.baseFare == baseFare) {
+            return entry.fare;
+        }
+        long fare = policy.fare(travelClass, baseFare, bucket);
+        flightMemo.cabins.set(cabin, new Entry(baseFare, bucket, fare));
+        return fare;
+    }
+
+    public BigDecimal priceFor(Flight flight, TravelClass travelClass) {
+        return Money.toDecimal(fareFor(flight, travelClass));
+    }
+
+    public void invalidate(Long flightId) {
+        memo.remove(flightId);
+    }
+
+    public void invalidateAll() {
+        memo.clear();
+    }
+
+    /**
+     * Drops the memoized fares of every flight that has departed
+     */
+    public void evictDeparted() {
+        long now = clock.millis() / 1000;
+        memo.values().removeIf(flightMemo -> flightMemo.departure <= now);
+    }
+
+    public int memoizedFlights() {
+        return memo.size();
+    }
+
+    private void sweepIfDue(long now) {
+        long due = nextSweep.get();
+        if (now >= due && nextSweep.compareAndSet(due, now + SWEEP_INTERVAL_SECONDS)) {
+            evictDeparted();
+        }
+    }
+
+    /**
+     * Memoized cabins of one flight, valid while it keeps its departure time
+     */
+    private static final class Memo {
+        final long departure;
+        final AtomicReferenceArray<Entry> cabins = new AtomicReferenceArray<>(TravelClass.COUNT);
+
+        Memo(long departure) {
+            this.departure = departure;
+        }
+    }
+
+    /**
+     * A fare and the base fare and bucket it was computed from
+     */
+    private static final class Entry {
+        final long baseFare;
+        final int bucket;
+        final long fare;
+
+        Entry(long baseFare, int bucket, long fare) {
+            this.baseFare = baseFare;
+            this.bucket = bucket;
+            this.fare = fare;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.smartwings.inventory;
+
+import com.smartwings.model.Flight;
+import com.smartwings.model.TravelClass;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Fare Bucket Inventory
+ * Nested booking-class inventory for one flight. Within a cabin, bucket 0 is
+ * the highest-value class and its booking limit is the cabin capacity; each
+ * lower bucket's limit is the capacity minus the seats protected for the
+ * buckets above it.
+ *
+ * Sales are kept as nested counts: nestedSold[k] is the seats sold in bucket
+ * k and every lower bucket. Bucket i is then available for
+ * min over k <= i of (limit[k] - nestedSold[k]), a handful of array reads.
+ * A reservation updates all the nested counts of its cabin under the cabin's
+ * write lock; availability reads are optimistic and lock-free.
+ */
+public class FareBucketInventory {
+
+    private final FareBucketLayout layout;
+    private final int[] limits;
+    private final int[] nestedSold;
+    private final StampedLock[] locks = new StampedLock[TravelClass.COUNT];
+
+    /**
+     * Starts with no protection in any cabin. Seats already sold on the flight
+     * are not attributed to a bucket and count against every bucket.
+     */
+    public FareBucketInventory(FareBucketLayout layout, Flight flight) {
+        this.layout = layout;
+        this.limits = new int[layout.totalBuckets()];
+        this.nestedSold = new int[layout.totalBuckets()];
+        for (TravelClass travelClass : TravelClass.values()) {
+            locks[travelClass.ordinal()] = new StampedLock();
+            int offset = layout.offset(travelClass);
+            int capacity = flight.getSeats(travelClass);
+            for (int b = 0; b < layout.bucketCount(travelClass); b++) {
+                limits[offset + b] = capacity;
+            }
+            nestedSold[offset] = capacity - flight.getAvailable(travelClass);
+        }
+    }
+
+    // Configuration
+    /**
+     * Sets the protection levels of a cabin. protectionLevels[i] is the number
+     * of seats held back for buckets 0..i from the buckets below i, so it
+     * needs one entry fewer than the cabin has buckets and must not decrease.
+     */
+    public void setProtectionLevels(TravelClass travelClass, int[] protectionLevels) {
+        int buckets = layout.bucketCount(travelClass);
+        if (protectionLevels.length != buckets - 1) {
+            throw new IllegalArgumentException("Cabin " + travelClass + " needs " + (buckets - 1) + " protection levels");
+        }
+        int offset = layout.offset(travelClass);
+        StampedLock lock = locks[travelClass.ordinal()];
+        long stamp = lock.writeLock();
+        try {
+            int capacity = limits[offset];
+            int previous = 0;
+            for (int i = 0; i < protectionLevels.length; i++) {
+                int level = protectionLevels[i];
+                if (level < previous || level > capacity) {
+                    throw new IllegalArgumentException("Protection levels must be non-decreasing and within capacity");
+                }
+                previous = level;
+            }
+            for (int i = 0; i < protectionLevels.length; i++) {
+                limits[offset + i + 1] = capacity - protectionLevels[i];
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Business methods
+    public int available(TravelClass travelClass, int bucket) {
+        int offset = layout.offset(travelClass);
+        StampedLock lock = locks[travelClass.ordinal()];
+        long stamp = lock.tryOptimisticRead();
+        int available = nestedAvailable(offset, bucket);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                available = nestedAvailable(offset, bucket);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return available;
+    }
+
+    /**
+     * Availability of every bucket of the cabin, highest bucket first
+     */
+    public int[] availability(TravelClass travelClass) {
+        int offset = layout.offset(travelClass);
+        int[] available = new int[layout.bucketCount(travelClass)];
+        StampedLock lock = locks[travelClass.ordinal()];
+        long stamp = lock.tryOptimisticRead();
+        fillAvailability(offset, available);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                fillAvailability(offset, available);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return available;
+    }
+
+    public boolean reserve(TravelClass travelClass, int bucket, int seats) {
+        checkBucket(travelClass, bucket);
+        if (seats <= 0) {
+            return false;
+        }
+        int offset = layout.offset(travelClass);
+        StampedLock lock = locks[travelClass.ordinal()];
+        long stamp = lock.writeLock();
+        try {
+            if (nestedAvailable(offset, bucket) < seats) {
+                return false;
+            }
+            for (int k = 0; k <= bucket; k++) {
+                nestedSold[offset + k] += seats;
+            }
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public boolean release(TravelClass travelClass, int bucket, int seats) {
+        checkBucket(travelClass, bucket);
+        if (seats <= 0) {
+            return false;
+        }
+        int offset = layout.offset(travelClass);
+        int last = layout.bucketCount(travelClass) - 1;
+        StampedLock lock = locks[travelClass.ordinal()];
+        long stamp = lock.writeLock();
+        try {
+            int soldInBucket = nestedSold[offset + bucket] - (bucket < last ? nestedSold[offset + bucket + 1] : 0);
+            if (soldInBucket < seats) {
+                return false;
+            }
+            for (int k = 0; k <= bucket; k++) {
+                nestedSold[offset + k] -= seats;
+            }
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public boolean reserve(TravelClass travelClass, String bucketCode, int seats) {
+        int bucket = layout.bucketOf(travelClass, bucketCode);
+        return bucket >= 0 && reserve(travelClass, bucket, seats);
+    }
+
+    public boolean release(TravelClass travelClass, String bucketCode, int seats) {
+        int bucket = layout.bucketOf(travelClass, bucketCode);
+        return bucket >= 0 && release(travelClass, bucket, seats);
+    }
+
+    /**
+     * Seats left in the cabin across all buckets
+     */
+    public int cabinAvailable(TravelClass travelClass) {
+        return available(travelClass, 0);
+    }
+
+    public FareBucketLayout getLayout() {
+        return layout;
+    }
+
+    private int nestedAvailable(int offset, int bucket) {
+        int available = Integer.MAX_VALUE;
+        for (int k = 0; k <= bucket; k++) {
+            available = Math.min(available, limits[offset + k] - nestedSold[offset + k]);
+        }
+        return Math.max(0, available);
+    }
+
+    private void fillAvailability(int offset, int[] available) {
+        int running = Integer.MAX_VALUE;
+        for (int k = 0; k < available.length; k++) {
+            running = Math.min(running, limits[offset + k] - nestedSold[offset + k]);
+            available[k] = Math.max(0, running);
+        }
+    }
+
+    private void checkBucket(TravelClass travelClass, int bucket) {
+        if (bucket < 0 || bucket >= layout.bucketCount(travelClass)) {
+            throw new IllegalArgumentException("No fare bucket " + bucket + " in cabin " + travelClass);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.smartwings.inventory;
+
+import com.smartwings.model.TravelClass;
+
+import java.util.Map;
+
+/**
+ * Fare Bucket Layout
+ * The booking classes sold in each cabin, ordered from highest to lowest
+ * value (e.g. Y, B, M, H, Q for economy). Shared by every flight using it;
+ * buckets are addressed by a flat index so per-flight state is plain arrays.
+ */
+public final class FareBucketLayout {
+
+    private final String[] codes;
+    private final int[] offsets = new int[TravelClass.COUNT + 1];
+
+    /**
+     * @param buckets booking class codes per cabin, highest value first;
+     *                cabins without an entry get a single bucket named after the cabin
+     */
+    public FareBucketLayout(Map<TravelClass, String[]> buckets) {
+        int total = 0;
+        for (TravelClass travelClass : TravelClass.values()) {
+            offsets[travelClass.ordinal()] = total;
+            total += buckets.getOrDefault(travelClass, new String[1]).length;
+        }
+        offsets[TravelClass.COUNT] = total;
+        codes = new String[total];
+        for (TravelClass travelClass : TravelClass.values()) {
+            String[] cabin = buckets.getOrDefault(travelClass, new String[] {travelClass.getCode()});
+            if (cabin.length == 0) {
+                throw new IllegalArgumentException("Cabin " + travelClass + " needs at least one fare bucket");
+            }
+            System.arraycopy(cabin, 0, codes, offsets[travelClass.ordinal()], cabin.length);
+        }
+    }
+
+    public int bucketCount(TravelClass travelClass) {
+        return offsets[travelClass.ordinal() + 1] - offsets[travelClass.ordinal()];
+    }
+
+    public String code(TravelClass travelClass, int bucket) {
+        return codes[offsets[travelClass.ordinal()] + bucket];
+    }
+
+    /**
+     * Position of the booking class within its cabin, or -1 if it is not sold there
+     */
+    public int bucketOf(TravelClass travelClass, String code) {
+        for (int i = offsets[travelClass.ordinal()]; i < offsets[travelClass.ordinal() + 1]; i++) {
+            if (codes[i].equals(code)) {
+                return i - offsets[travelClass.ordinal()];
+            }
+        }
+        return -1;
+    }
+
+    int offset(TravelClass travelClass) {
+        return offsets[travelClass.ordinal()];
+    }
+
+    int totalBuckets() {
+        return codes.length;
+    }
+}
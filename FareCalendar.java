@@ -0,0 +1,261 @@
+package com.smartwings.search;
+
+import com.smartwings.model.CodeDictionary;
+import com.smartwings.model.Flight;
+import com.smartwings.model.Money;
+import com.smartwings.model.TravelClass;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fare Calendar
+ * Lowest available fare per route, cabin and departure day over a rolling
+ * window (365 days by default), so flexible-date grids are answered from
+ * memory in one call. Fares are in Money minor units.
+ *
+ * Each route keeps the lowest fares in a ring of days, plus the per-flight
+ * fares of every day so a day's minimum can be recomputed when the cheapest
+ * flight sells out or changes price. Routes are keyed by the CodeDictionary
+ * ids of their airports. Writers are serialized; readers are lock-free.
+ */
+public class FareCalendar {
+
+    public static final long NO_FARE = -1L;
+
+    private static final long NONE = Long.MAX_VALUE;
+
+    private final int days;
+    private final Map<Long, RouteCalendar> routes = new ConcurrentHashMap<>();
+    private final Map<Long, Placement> placements = new ConcurrentHashMap<>();
+    private volatile long windowStart;
+
+    public FareCalendar(LocalDate today) {
+        this(today, 365);
+    }
+
+    public FareCalendar(LocalDate today, int days) {
+        this.days = days;
+        this.windowStart = today.toEpochDay();
+    }
+
+    // Updates
+    /**
+     * Records a flight's current fares and availability. Flights departing
+     * outside the window are dropped.
+     */
+    public synchronized void upsert(Flight flight) {
+        Long flightId = flight.getId();
+        long day = flight.getDepartureTime().toLocalDate().toEpochDay();
+        if (!inWindow(day)) {
+            // Checked before routeFor so an out-of-window flight never
+            // creates a route calendar
+            remove(flightId);
+            return;
+        }
+        Placement previous = placements.get(flightId);
+        RouteCalendar route = routeFor(flight.getOriginAirportId(), flight.getDestinationAirportId());
+
+        if (previous != null && (previous.route != route || previous.day != day)) {
+            previous.route.remove(previous.day, flightId);
+            placements.remove(flightId);
+        }
+        route.put(day, flightId, faresOf(flight));
+        placements.put(flightId, new Placement(route, day));
+    }
+
+    public synchronized void remove(Long flightId) {
+        Placement placement = placements.remove(flightId);
+        if (placement != null) {
+            placement.route.remove(placement.day, flightId);
+        }
+    }
+
+    /**
+     * Rolls the window forward so it starts today, clearing the days that
+     * fell out of it.
+     */
+    public synchronized void advanceTo(LocalDate today) {
+        long start = today.toEpochDay();
+        if (start <= windowStart) {
+            return;
+        }
+        long end = Math.min(start, windowStart + days);
+        placements.values().removeIf(placement -> placement.day < start);
+        for (RouteCalendar route : routes.values()) {
+            for (long day = windowStart; day < end; day++) {
+                route.clear(day);
+            }
+        }
+        windowStart = start;
+    }
+
+    // Lookups
+    /**
+     * Lowest fare for each of count consecutive days starting at from, or
+     * NO_FARE for days without an available fare or outside the window.
+     */
+    public long[] lowestFares(String origin, String destination, TravelClass travelClass, LocalDate from, int count) {
+        return lowestFares(CodeDictionary.AIRPORTS.find(origin), CodeDictionary.AIRPORTS.find(destination),
+                travelClass, from, count);
+    }
+
+    /**
+     * As lowestFares, by airport ids
+     */
+    public long[] lowestFares(int origin, int destination, TravelClass travelClass, LocalDate from, int count) {
+        long[] fares = new long[count];
+        Arrays.fill(fares, NO_FARE);
+        RouteCalendar route = routes.get(CodeDictionary.pair(origin, destination));
+        if (route == null) {
+            return fares;
+        }
+        long first = from.toEpochDay();
+        for (int i = 0; i < count; i++) {
+            long day = first + i;
+            if (inWindow(day)) {
+                long fare = route.lowest.get(route.slot(day) * TravelClass.COUNT + travelClass.ordinal());
+                fares[i] = fare == NONE ? NO_FARE : fare;
+            }
+        }
+        return fares;
+    }
+
+    /**
+     * Lowest fares for the days around a date, e.g. +/- 3 days
+     */
+    public long[] lowestFaresAround(String origin, String destination, TravelClass travelClass, LocalDate date,
+                                    int daysEitherSide) {
+        return lowestFares(origin, destination, travelClass, date.minusDays(daysEitherSide), 2 * daysEitherSide + 1);
+    }
+
+    public long[] lowestFaresForMonth(String origin, String destination, TravelClass travelClass, YearMonth month) {
+        return lowestFares(origin, destination, travelClass, month.atDay(1), month.lengthOfMonth());
+    }
+
+    private boolean inWindow(long day) {
+        long start = windowStart;
+        return day >= start && day < start + days;
+    }
+
+    private RouteCalendar routeFor(int origin, int destination) {
+        return routes.computeIfAbsent(CodeDictionary.pair(origin, destination), route -> new RouteCalendar(days));
+    }
+
+    private static long[] faresOf(Flight flight) {
+        long[] fares = new long[TravelClass.COUNT];
+        for (TravelClass travelClass : TravelClass.values()) {
+            long fare = flight.getFareForClass(travelClass);
+            fares[travelClass.ordinal()] = Money.isPresent(fare) && flight.hasSeatsAvailable(travelClass, 1)
+                    ? fare
+                    : NONE;
+        }
+        return fares;
+    }
+
+    /**
+     * Where a flight's fares are currently recorded
+     */
+    private static final class Placement {
+        final RouteCalendar route;
+        final long day;
+
+        Placement(RouteCalendar route, long day) {
+            this.route = route;
+            this.day = day;
+        }
+    }
+
+    /**
+     * One route's ring of days. Per day: the lowest fare per cabin, and the
+     * fares of each flight (TravelClass.COUNT entries per flight).
+     */
+    private static final class RouteCalendar {
+        final int days;
+        final AtomicLongArray lowest;
+        final long[][] flightIds;
+        final long[][] flightFares;
+        final int[] flightCount;
+
+        RouteCalendar(int days) {
+            this.days = days;
+            this.lowest = new AtomicLongArray(days * TravelClass.COUNT);
+            this.flightIds = new long[days][];
+            this.flightFares = new long[days][];
+            this.flightCount = new int[days];
+            for (int i = 0; i < lowest.length(); i++) {
+                lowest.set(i, NONE);
+            }
+        }
+
+        int slot(long day) {
+            return (int) Math.floorMod(day, (long) days);
+        }
+
+        void put(long day, long flightId, long[] fares) {
+            int slot = slot(day);
+            int at = indexOf(slot, flightId);
+            if (at < 0) {
+                int count = flightCount[slot];
+                if (flightIds[slot] == null) {
+                    flightIds[slot] = new long[4];
+                    flightFares[slot] = new long[4 * TravelClass.COUNT];
+                } else if (count == flightIds[slot].length) {
+                    flightIds[slot] = Arrays.copyOf(flightIds[slot], count * 2);
+                    flightFares[slot] = Arrays.copyOf(flightFares[slot], count * 2 * TravelClass.COUNT);
+                }
+                at = count;
+                flightIds[slot][at] = flightId;
+                flightCount[slot] = count + 1;
+            }
+            System.arraycopy(fares, 0, flightFares[slot], at * TravelClass.COUNT, TravelClass.COUNT);
+            recompute(slot);
+        }
+
+        void remove(long day, long flightId) {
+            int slot = slot(day);
+            int at = indexOf(slot, flightId);
+            if (at < 0) {
+                return;
+            }
+            int last = --flightCount[slot];
+            flightIds[slot][at] = flightIds[slot][last];
+            System.arraycopy(flightFares[slot], last * TravelClass.COUNT,
+                    flightFares[slot], at * TravelClass.COUNT, TravelClass.COUNT);
+            recompute(slot);
+        }
+
+        void clear(long day) {
+            int slot = slot(day);
+            flightIds[slot] = null;
+            flightFares[slot] = null;
+            flightCount[slot] = 0;
+            recompute(slot);
+        }
+
+        int indexOf(int slot, long flightId) {
+            long[] ids = flightIds[slot];
+            for (int i = 0, n = flightCount[slot]; i < n; i++) {
+                if (ids[i] == flightId) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        void recompute(int slot) {
+            long[] fares = flightFares[slot];
+            for (int cabin = 0; cabin < TravelClass.COUNT; cabin++) {
+                long min = NONE;
+                for (int i = 0, n = flightCount[slot]; i < n; i++) {
+                    min = Math.min(min, fares[i * TravelClass.COUNT + cabin]);
+                }
+                lowest.set(slot * TravelClass.COUNT + cabin, min);
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.smartwings.pricing;
+
+/**
+ * Fare Ladder
+ * Load-factor and time-to-departure steps for one cabin. Each step has a
+ * multiplier in basis points (10000 = base fare); the live fare is the base
+ * fare scaled by the load step's multiplier and then the time step's.
+ *
+ * Load steps are the sold percentages at which the next step starts, e.g.
+ * {50, 80, 95}. Time steps are the hours before departure below which the
+ * next step starts, e.g. {336, 72, 24}.
+ */
+public final class FareLadder {
+
+    private final int[] soldPercentSteps;
+    private final int[] loadMultipliers;
+    private final int[] hoursSteps;
+    private final int[] timeMultipliers;
+
+    public FareLadder(int[] soldPercentSteps, int[] loadMultipliers, int[] hoursSteps, int[] timeMultipliers) {
+        if (loadMultipliers.length != soldPercentSteps.length + 1
+                || timeMultipliers.length != hoursSteps.length + 1) {
+            throw new IllegalArgumentException("A ladder needs one multiplier more than it has steps");
+        }
+        // LadderFarePolicy packs a load step and a time step into one int bucket
+        if ((long) loadMultipliers.length * timeMultipliers.length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many ladder steps");
+        }
+        this.soldPercentSteps = soldPercentSteps.clone();
+        this.loadMultipliers = loadMultipliers.clone();
+        this.hoursSteps = hoursSteps.clone();
+        this.timeMultipliers = timeMultipliers.clone();
+    }
+
+    /**
+     * A ladder that always yields the base fare
+     */
+    public static FareLadder flat() {
+        return new FareLadder(new int[0], new int[] {10_000}, new int[0], new int[] {10_000});
+    }
+
+    int loadStep(int seats, int available) {
+        if (seats <= 0) {
+            return 0;
+        }
+        int soldPercent = (int) ((seats - available) * 100L / seats);
+        int step = 0;
+        while (step < soldPercentSteps.length && soldPercent >= soldPercentSteps[step]) {
+            step++;
+        }
+        return step;
+    }
+
+    int timeStep(long minutesToDeparture) {
+        long hours = minutesToDeparture / 60;
+        int step = 0;
+        while (step < hoursSteps.length && hours < hoursSteps[step]) {
+            step++;
+        }
+        return step;
+    }
+
+    int timeSteps() {
+        return timeMultipliers.length;
+    }
+
+    long apply(long baseFare, int loadStep, int timeStep) {
+        long fare = scale(baseFare, loadMultipliers[loadStep]);
+        return scale(fare, timeMultipliers[timeStep]);
+    }
+
+    private static long scale(long fare, int basisPoints) {
+        // Rounds half-up to the nearest minor unit
+        return (Math.multiplyExact(fare, (long) basisPoints) + 5_000) / 10_000;
+    }
+}
@@ -0,0 +1,25 @@
+package com.smartwings.pricing;
+
+import com.smartwings.model.TravelClass;
+
+/**
+ * Fare Policy
+ * Pluggable pricing rule for the DynamicPricingEngine. A policy maps the
+ * state of a cabin to a bucket, and a bucket plus the cabin's base fare to
+ * a live fare. The engine memoizes fares per bucket, so fare() is only
+ * called when the bucket of a flight's cabin changes.
+ */
+public interface FarePolicy {
+
+    /**
+     * Bucket for the cabin's current load and time to departure. Any int
+     * value is allowed, but it must depend only on the arguments.
+     */
+    int bucket(TravelClass travelClass, int seats, int available, long minutesToDeparture);
+
+    /**
+     * Live fare in Money minor units for the bucket, given the base fare
+     * stored on the flight.
+     */
+    long fare(TravelClass travelClass, long baseFare, int bucket);
+}
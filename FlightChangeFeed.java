@@ -0,0 +1,347 @@
+package com.smartwings.schedule;
+
+import com.smartwings.model.Flight;
+import com.smartwings.repository.FlightChangeRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Flight Change Feed
+ * Polls the flights table for rows changed since an updatedAt watermark and
+ * streams them in batches to subscribers such as in-memory indexes, caches
+ * and downstream publishers.
+ *
+ * Each poll pages through (updated_at, id) with keyset pagination, starting a
+ * commit lag before the watermark so rows committed late with an earlier
+ * timestamp are still picked up. Every (flight, version) is delivered once:
+ * rows re-read inside the lag window are dropped unless their version is
+ * newer than the one already delivered. A version is recorded as delivered
+ * only once its batch is in every subscriber's queue, and the watermark only
+ * moves past pages that were, so a poll that fails part way leaves the rest
+ * to be re-read by the next one.
+ *
+ * Every subscriber has a bounded queue of batches drained in order on its own
+ * executor. When a queue is full the poller waits, so a slow subscriber holds
+ * back reads from the database instead of buffering without limit. A batch
+ * the consumer throws on stays at the head of its queue and parks the
+ * subscriber until resume() retries it; later batches never overtake it.
+ */
+public class FlightChangeFeed {
+
+    private static final System.Logger LOG = System.getLogger(FlightChangeFeed.class.getName());
+
+    // How often a poller waiting for queue space checks that the subscriber
+    // is still subscribed
+    private static final long SLOT_WAIT_MILLIS = 100;
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final int batchSize;
+    private final int maxPendingBatches;
+    private final Duration commitLag;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    // Poller state, guarded by pollLock
+    private final Object pollLock = new Object();
+    private volatile LocalDateTime watermark;
+    private final Map<Long, Delivered> delivered = new HashMap<>();
+    private final ArrayDeque<Delivered> deliveredOrder = new ArrayDeque<>();
+    private ScheduledFuture<?> polling;
+    private final LongAdder failedPolls = new LongAdder();
+
+    /**
+     * @param watermark updatedAt to start from, e.g. a snapshot's watermark;
+     *                  null streams the whole table first
+     */
+    public FlightChangeFeed(EntityManagerFactory entityManagerFactory, int batchSize, int maxPendingBatches,
+                            Duration commitLag, LocalDateTime watermark) {
+        if (batchSize < 1 || maxPendingBatches < 1) {
+            throw new IllegalArgumentException("batchSize and maxPendingBatches must be at least 1");
+        }
+        this.entityManagerFactory = entityManagerFactory;
+        this.batchSize = batchSize;
+        this.maxPendingBatches = maxPendingBatches;
+        this.commitLag = commitLag;
+        this.watermark = watermark;
+    }
+
+    // Subscriptions
+    /**
+     * Delivers every batch of changes to the consumer, in order, on the
+     * executor. A batch the consumer throws on is counted and parks the
+     * subscriber; see Subscriber.resume().
+     */
+    public Subscriber subscribe(Consumer<List<Flight>> consumer, Executor executor) {
+        Subscriber subscriber = new Subscriber(consumer, executor, maxPendingBatches);
+        subscribers.add(subscriber);
+        return subscriber;
+    }
+
+    public void unsubscribe(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+        subscriber.subscribed = false;
+    }
+
+    // Polling
+    public synchronized void start(ScheduledExecutorService scheduler, Duration interval) {
+        if (polling == null) {
+            polling = scheduler.scheduleWithFixedDelay(this::pollQuietly, 0, interval.toMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public synchronized void stop() {
+        if (polling != null) {
+            polling.cancel(false);
+            polling = null;
+        }
+    }
+
+    /**
+     * Reads every change since the watermark and hands it to the subscribers.
+     * Returns the number of changes delivered. Blocks while a subscriber's
+     * queue is full. On failure the watermark stays after the last page
+     * handed over, so calling poll again resumes where this one stopped.
+     */
+    public int poll() {
+        synchronized (pollLock) {
+            return pollChanges();
+        }
+    }
+
+    // A scheduled task that throws is never run again, so one failed read
+    // (a dropped connection, a timeout) would silently end the feed
+    private void pollQuietly() {
+        try {
+            poll();
+        } catch (RuntimeException e) {
+            failedPolls.increment();
+            LOG.log(System.Logger.Level.WARNING, "Flight change poll failed; retrying after watermark " + watermark, e);
+        }
+    }
+
+    private int pollChanges() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            FlightChangeRepository changes = new FlightChangeRepository(entityManager);
+            LocalDateTime cursor = watermark == null ? null : watermark.minus(commitLag);
+            long cursorId = 0;
+            int count = 0;
+            for (;;) {
+                List<Flight> page = changes.findChangedSince(cursor, cursorId, batchSize);
+                List<Flight> batch = new ArrayList<>(page.size());
+                for (Flight flight : page) {
+                    if (isUndelivered(flight)) {
+                        batch.add(flight);
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    publish(batch);
+                    for (Flight flight : batch) {
+                        markDelivered(flight);
+                    }
+                    count += batch.size();
+                }
+                if (!page.isEmpty()) {
+                    Flight last = page.get(page.size() - 1);
+                    cursor = last.getUpdatedAt();
+                    cursorId = last.getId();
+                    if (watermark == null || cursor.isAfter(watermark)) {
+                        watermark = cursor;
+                    }
+                }
+                if (page.size() < batchSize) {
+                    break;
+                }
+                // Keep the next page out of this one's persistence context
+                entityManager.clear();
+            }
+            forgetBefore(watermark == null ? null : watermark.minus(commitLag));
+            return count;
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    public LocalDateTime getWatermark() {
+        return watermark;
+    }
+
+    /**
+     * Scheduled polls that threw; each is retried by the next scheduled run
+     */
+    public long getFailedPolls() {
+        return failedPolls.sum();
+    }
+
+    private void publish(List<Flight> batch) {
+        List<Flight> shared = List.copyOf(batch);
+        // Take a queue slot from every subscriber before enqueuing anywhere,
+        // so an interrupted wait leaves no subscriber with the batch and a
+        // re-read cannot hand it to one of them twice. The poller is the only
+        // producer, so a slot once taken stays free for this batch.
+        List<Subscriber> targets = new ArrayList<>(subscribers.size());
+        try {
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.reserveSlot()) {
+                    targets.add(subscriber);
+                }
+            }
+        } catch (InterruptedException e) {
+            for (Subscriber subscriber : targets) {
+                subscriber.releaseSlot();
+            }
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a subscriber to catch up", e);
+        }
+        for (Subscriber subscriber : targets) {
+            subscriber.enqueue(shared);
+        }
+    }
+
+    // Delivered versions, kept for the rows that can still be re-read
+    private boolean isUndelivered(Flight flight) {
+        Delivered previous = delivered.get(flight.getId());
+        return previous == null || previous.version < versionOf(flight);
+    }
+
+    private void markDelivered(Flight flight) {
+        Delivered entry = new Delivered(flight.getId(), versionOf(flight), flight.getUpdatedAt());
+        delivered.put(entry.flightId, entry);
+        deliveredOrder.addLast(entry);
+    }
+
+    private static long versionOf(Flight flight) {
+        return flight.getVersion() == null ? 0L : flight.getVersion();
+    }
+
+    private void forgetBefore(LocalDateTime cutoff) {
+        if (cutoff == null) {
+            return;
+        }
+        while (!deliveredOrder.isEmpty() && deliveredOrder.peekFirst().updatedAt.isBefore(cutoff)) {
+            Delivered entry = deliveredOrder.pollFirst();
+            delivered.remove(entry.flightId, entry);
+        }
+    }
+
+    private static final class Delivered {
+        final Long flightId;
+        final long version;
+        final LocalDateTime updatedAt;
+
+        Delivered(Long flightId, long version, LocalDateTime updatedAt) {
+            this.flightId = flightId;
+            this.version = version;
+            this.updatedAt = updatedAt;
+        }
+    }
+
+    /**
+     * A consumer with its bounded queue of pending batches
+     */
+    public static final class Subscriber {
+        private final Consumer<List<Flight>> consumer;
+        private final Executor executor;
+        private final Semaphore slots;
+        private final ConcurrentLinkedQueue<List<Flight>> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final LongAdder delivered = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private volatile boolean parked;
+        private volatile boolean subscribed = true;
+
+        Subscriber(Consumer<List<Flight>> consumer, Executor executor, int maxPendingBatches) {
+            this.consumer = consumer;
+            this.executor = executor;
+            this.slots = new Semaphore(maxPendingBatches);
+        }
+
+        public int getPendingBatches() { return pending.size(); }
+        public long getDeliveredBatches() { return delivered.sum(); }
+        public long getFailedBatches() { return failed.sum(); }
+
+        /**
+         * True after the consumer threw, until resume() is called. A parked
+         * subscriber's queue fills up and then holds back the poller.
+         */
+        public boolean isParked() { return parked; }
+
+        /**
+         * Retries the batch the consumer threw on, then carries on draining
+         */
+        public void resume() {
+            parked = false;
+            scheduleDrain();
+        }
+
+        // Waits for queue space; false if the subscriber left the feed meanwhile
+        boolean reserveSlot() throws InterruptedException {
+            while (subscribed) {
+                if (slots.tryAcquire(SLOT_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void releaseSlot() {
+            slots.release();
+        }
+
+        void enqueue(List<Flight> batch) {
+            pending.add(batch);
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            // One drain at a time keeps batches in order
+            if (!parked && draining.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            List<Flight> batch;
+            while (!parked && (batch = pending.peek()) != null) {
+                try {
+                    consumer.accept(batch);
+                } catch (RuntimeException e) {
+                    // Leave the batch at the head: dropping it would lose
+                    // versions the feed will not read again
+                    failed.increment();
+                    parked = true;
+                    LOG.log(System.Logger.Level.WARNING, "Flight change subscriber failed on a batch of "
+                            + batch.size() + "; parked until resumed", e);
+                    break;
+                }
+                pending.poll();
+                slots.release();
+                delivered.increment();
+            }
+            draining.set(false);
+            // A batch enqueued, or a resume, after the loop ended but before
+            // the flag cleared
+            if (!parked && !pending.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.smartwings.repository;
+
+import com.smartwings.model.Flight;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Flight Change Repository
+ * Reads flights changed after a watermark in (updated_at, id) order with
+ * keyset pagination: each page continues strictly after the last row of the
+ * previous one, so pages stay cheap however far behind the reader is and no
+ * row is skipped when several share a timestamp. Rows without an updated_at
+ * are never returned. Needs an index on (updated_at, id).
+ */
+public class FlightChangeRepository {
+
+    private static final String CHANGED_SINCE =
+            "SELECT f FROM Flight f WHERE f.updatedAt > :updatedAt "
+                    + "OR (f.updatedAt = :updatedAt AND f.id > :id) "
+                    + "ORDER BY f.updatedAt, f.id";
+
+    private static final String CHANGED_FROM_START =
+            "SELECT f FROM Flight f WHERE f.updatedAt IS NOT NULL ORDER BY f.updatedAt, f.id";
+
+    private final EntityManager entityManager;
+
+    public FlightChangeRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Up to limit flights ordered by (updatedAt, id) that come after the
+     * watermark. A null updatedAt reads from the start.
+     */
+    public List<Flight> findChangedSince(LocalDateTime updatedAt, long id, int limit) {
+        if (updatedAt == null) {
+            return entityManager.createQuery(CHANGED_FROM_START, Flight.class)
+                    .setMaxResults(limit)
+                    .getResultList();
+        }
+        return entityManager.createQuery(CHANGED_SINCE, Flight.class)
+                .setParameter("updatedAt", updatedAt)
+                .setParameter("id", id)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
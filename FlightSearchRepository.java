@@ -0,0 +1,93 @@
+package com.smartwings.repository;
+
+import com.smartwings.model.FlightStatus;
+import com.smartwings.model.TravelClass;
+import com.smartwings.search.FlightSearchResult;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Flight Search Repository
+ * Searches bookable flights on a route as FlightSearchResult projections
+ * rather than Flight entities. The constructor expression selects only the
+ * result's columns and its rows never enter the persistence context, so a
+ * large result set costs neither dirty-checking snapshots nor a flush check,
+ * and the lazy bookings association is never touched.
+ *
+ * Results are fetched in fetchSize-row round trips through the
+ * org.hibernate.fetchSize hint; the read-only hint keeps the provider from
+ * tracking anything should it materialize entities along the way.
+ */
+public class FlightSearchRepository {
+
+    public static final String FETCH_SIZE_HINT = "org.hibernate.fetchSize";
+    public static final String READ_ONLY_HINT = "org.hibernate.readOnly";
+
+    private static final String[] SEARCH_JPQL = new String[TravelClass.COUNT];
+
+    static {
+        for (TravelClass travelClass : TravelClass.values()) {
+            String cabin = camelCase(travelClass.getColumnPrefix());
+            SEARCH_JPQL[travelClass.ordinal()] = "SELECT new " + FlightSearchResult.class.getName() + "("
+                    + "f.id, f.flightNumber, f.airline, f.originAirport, f.originCity, "
+                    + "f.destinationAirport, f.destinationCity, f.departureTime, f.arrivalTime, "
+                    + "f.aircraftType, f.status, f." + cabin + "Price, f." + cabin + "Available) "
+                    + "FROM Flight f "
+                    + "WHERE f.originAirport = :origin AND f.destinationAirport = :destination "
+                    + "AND f.departureTime >= :from AND f.departureTime < :to "
+                    + "AND f." + cabin + "Price IS NOT NULL AND f." + cabin + "Available >= :seats "
+                    + "AND f.status <> :cancelled "
+                    + "ORDER BY f.departureTime, f.id";
+        }
+    }
+
+    private final EntityManager entityManager;
+    private final int fetchSize;
+
+    public FlightSearchRepository(EntityManager entityManager, int fetchSize) {
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("fetchSize must be at least 1");
+        }
+        this.entityManager = entityManager;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Up to limit flights on the route departing in [from, to) with at least
+     * the requested seats free in the cabin, in departure order. Cancelled
+     * flights and cabins without a fare are left out.
+     */
+    public List<FlightSearchResult> search(String origin, String destination, LocalDateTime from, LocalDateTime to,
+                                           TravelClass travelClass, int seats, int limit) {
+        return entityManager.createQuery(SEARCH_JPQL[travelClass.ordinal()], FlightSearchResult.class)
+                .setParameter("origin", origin)
+                .setParameter("destination", destination)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setParameter("seats", seats)
+                .setParameter("cancelled", FlightStatus.CANCELLED)
+                .setHint(FETCH_SIZE_HINT, Math.min(fetchSize, limit))
+                .setHint(READ_ONLY_HINT, true)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Entity attribute prefix of a column prefix, e.g. first_class to firstClass
+     */
+    private static String camelCase(String columnPrefix) {
+        StringBuilder name = new StringBuilder(columnPrefix.length());
+        boolean upper = false;
+        for (char c : columnPrefix.toCharArray()) {
+            if (c == '_') {
+                upper = true;
+            } else {
+                name.append(upper ? Character.toUpperCase(c) : c);
+                upper = false;
+            }
+        }
+        return name.toString();
+    }
+}
@@ -0,0 +1,91 @@
+package com.smartwings.search;
+
+import com.smartwings.model.AircraftLayout;
+import com.smartwings.model.CodeDictionary;
+import com.smartwings.model.FlightStatus;
+import com.smartwings.model.Money;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Flight Search Result
+ * Immutable row of the flight results panel: only the fields the panel
+ * shows, for one cabin. Built by a JPQL constructor expression, so loading it
+ * creates no managed entity, dirty-checking snapshot or bookings proxy, and
+ * never reads notes.
+ *
+ * Like Flight, codes are kept as CodeDictionary ids and the aircraft type as
+ * its shared layout, so a result set does not hold a copy of each code per
+ * row.
+ */
+public final class FlightSearchResult {
+
+    private final long id;
+    private final String flightNumber;
+    private final int airlineId;
+    private final int originAirportId;
+    private final int originCityId;
+    private final int destinationAirportId;
+    private final int destinationCityId;
+    private final LocalDateTime departureTime;
+    private final LocalDateTime arrivalTime;
+    private final AircraftLayout aircraftLayout;
+    private final FlightStatus status;
+    private final long fare;
+    private final int available;
+
+    /**
+     * Argument order and types match FlightSearchRepository's select list
+     */
+    public FlightSearchResult(Long id, String flightNumber, String airline, String originAirport, String originCity,
+                              String destinationAirport, String destinationCity, LocalDateTime departureTime,
+                              LocalDateTime arrivalTime, String aircraftType, FlightStatus status, BigDecimal price,
+                              Integer available) {
+        this.id = id;
+        this.flightNumber = flightNumber;
+        this.airlineId = CodeDictionary.AIRLINES.encode(airline);
+        this.originAirportId = CodeDictionary.AIRPORTS.encode(originAirport);
+        this.originCityId = CodeDictionary.CITIES.encode(originCity);
+        this.destinationAirportId = CodeDictionary.AIRPORTS.encode(destinationAirport);
+        this.destinationCityId = CodeDictionary.CITIES.encode(destinationCity);
+        this.departureTime = departureTime;
+        this.arrivalTime = arrivalTime;
+        this.aircraftLayout = AircraftLayout.of(aircraftType);
+        this.status = status;
+        this.fare = Money.fromDecimal(price);
+        this.available = available == null ? 0 : available;
+    }
+
+    public long getId() { return id; }
+    public String getFlightNumber() { return flightNumber; }
+    public String getAirline() { return CodeDictionary.AIRLINES.decode(airlineId); }
+    public String getOriginAirport() { return CodeDictionary.AIRPORTS.decode(originAirportId); }
+    public String getOriginCity() { return CodeDictionary.CITIES.decode(originCityId); }
+    public String getDestinationAirport() { return CodeDictionary.AIRPORTS.decode(destinationAirportId); }
+    public String getDestinationCity() { return CodeDictionary.CITIES.decode(destinationCityId); }
+    public LocalDateTime getDepartureTime() { return departureTime; }
+    public LocalDateTime getArrivalTime() { return arrivalTime; }
+    public String getAircraftType() { return aircraftLayout == null ? null : aircraftLayout.getCode(); }
+    public FlightStatus getStatus() { return status; }
+    public int getAvailable() { return available; }
+
+    /**
+     * Fare of the searched cabin in Money minor units
+     */
+    public long getFare() { return fare; }
+
+    public BigDecimal getPrice() { return Money.toDecimal(fare); }
+
+    @Override
+    public String toString() {
+        return "FlightSearchResult{" +
+                "id=" + id +
+                ", flightNumber='" + flightNumber + '\'' +
+                ", originAirport='" + getOriginAirport() + '\'' +
+                ", destinationAirport='" + getDestinationAirport() + '\'' +
+                ", departureTime=" + departureTime +
+                ", fare=" + getPrice() +
+                '}';
+    }
+}
@@ -0,0 +1,81 @@
+package com.smartwings.repository;
+
+import com.smartwings.model.TravelClass;
+
+import javax.persistence.EntityManager;
+import java.time.Clock;
+import java.time.LocalDateTime;
+
+/**
+ * Flight Seat Repository
+ * Reserves and releases seats with a single conditional UPDATE per request,
+ * without loading the Flight entity. The row-level check in the WHERE clause
+ * makes the database the arbiter, so concurrent bookings cannot oversell.
+ *
+ * Managed Flight instances in the current persistence context are not
+ * refreshed by these statements. The version column is bumped so that a
+ * stale entity cannot overwrite the new counts on its next flush.
+ *
+ * updated_at is stamped from the application clock, as Flight.onUpdate does,
+ * not the database's CURRENT_TIMESTAMP: change feeds order and window rows by
+ * it, and two clocks that disagree would put these rows out of order with
+ * entity updates.
+ */
+public class FlightSeatRepository {
+
+    private static final String[] RESERVE_SQL = new String[TravelClass.COUNT];
+    private static final String[] RELEASE_SQL = new String[TravelClass.COUNT];
+
+    static {
+        for (TravelClass travelClass : TravelClass.values()) {
+            String available = travelClass.getColumnPrefix() + "_available";
+            String capacity = travelClass.getColumnPrefix() + "_seats";
+            RESERVE_SQL[travelClass.ordinal()] = "UPDATE flights SET " + available + " = " + available + " - ?1, "
+                    + "updated_at = ?3, version = version + 1 "
+                    + "WHERE id = ?2 AND " + available + " >= ?1";
+            RELEASE_SQL[travelClass.ordinal()] = "UPDATE flights SET " + available + " = " + available + " + ?1, "
+                    + "updated_at = ?3, version = version + 1 "
+                    + "WHERE id = ?2 AND " + available + " + ?1 <= " + capacity;
+        }
+    }
+
+    private final EntityManager entityManager;
+    private final Clock clock;
+
+    public FlightSeatRepository(EntityManager entityManager) {
+        this(entityManager, Clock.systemDefaultZone());
+    }
+
+    public FlightSeatRepository(EntityManager entityManager, Clock clock) {
+        this.entityManager = entityManager;
+        this.clock = clock;
+    }
+
+    /**
+     * Must run inside a transaction. Returns false when the flight does not
+     * exist or has fewer than the requested seats left in the cabin.
+     */
+    public boolean reserveSeats(Long flightId, TravelClass travelClass, int seats) {
+        return execute(RESERVE_SQL, flightId, travelClass, seats);
+    }
+
+    /**
+     * Must run inside a transaction. Returns false when the release would
+     * take the cabin above its capacity.
+     */
+    public boolean releaseSeats(Long flightId, TravelClass travelClass, int seats) {
+        return execute(RELEASE_SQL, flightId, travelClass, seats);
+    }
+
+    private boolean execute(String[] statements, Long flightId, TravelClass travelClass, int seats) {
+        if (seats <= 0) {
+            return false;
+        }
+        int updated = entityManager.createNativeQuery(statements[travelClass.ordinal()])
+                .setParameter(1, seats)
+                .setParameter(2, flightId)
+                .setParameter(3, LocalDateTime.now(clock))
+                .executeUpdate();
+        return updated == 1;
+    }
+}
@@ -0,0 +1,47 @@
+package com.smartwings.model;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Flight Status Enumeration
+ * Statuses form a state machine; the statuses each one may move to are
+ * precomputed once, so a transition check is a single bit test.
+ */
+public enum FlightStatus {
+    SCHEDULED,
+    BOARDING,
+    DEPARTED,
+    IN_FLIGHT,
+    ARRIVED,
+    DELAYED,
+    CANCELLED;
+
+    private Set<FlightStatus> next;
+
+    static {
+        SCHEDULED.next = EnumSet.of(BOARDING, DELAYED, CANCELLED);
+        DELAYED.next = EnumSet.of(SCHEDULED, BOARDING, DELAYED, CANCELLED);
+        BOARDING.next = EnumSet.of(DEPARTED, DELAYED, CANCELLED);
+        DEPARTED.next = EnumSet.of(IN_FLIGHT, ARRIVED);
+        IN_FLIGHT.next = EnumSet.of(ARRIVED);
+        ARRIVED.next = EnumSet.noneOf(FlightStatus.class);
+        CANCELLED.next = EnumSet.noneOf(FlightStatus.class);
+        for (FlightStatus status : values()) {
+            status.next = Collections.unmodifiableSet(status.next);
+        }
+    }
+
+    public boolean canTransitionTo(FlightStatus status) {
+        return next.contains(status);
+    }
+
+    public Set<FlightStatus> getTransitions() {
+        return next;
+    }
+
+    public boolean isFinal() {
+        return next.isEmpty();
+    }
+}
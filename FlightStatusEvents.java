@@ -0,0 +1,211 @@
+package com.smartwings.status;
+
+import com.smartwings.model.Flight;
+import com.smartwings.model.FlightStatus;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Flight Status Events
+ * In-process stream of flight status, gate and terminal changes, so gate
+ * displays, notifications and cache invalidation consume one feed instead of
+ * polling the flights table.
+ *
+ * Events live in a preallocated ring of parallel arrays written by a single
+ * publisher. Each subscription runs its handler on its own thread, reading
+ * the ring in order up to the published cursor, in batches. The publisher
+ * never overwrites a slot that a subscription has not yet consumed; it waits
+ * instead, so a stuck handler eventually stalls publishing.
+ */
+public class FlightStatusEvents {
+
+    private final int mask;
+    private final long[] flightIds;
+    private final String[] flightNumbers;
+    private final byte[] previousStatuses;
+    private final byte[] statuses;
+    private final String[] gates;
+    private final String[] terminals;
+    private final long[] timestamps;
+
+    // Last published sequence; -1 before the first event
+    private final AtomicLong cursor = new AtomicLong(-1);
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private long cachedGate = -1;
+
+    private static final FlightStatus[] STATUSES = FlightStatus.values();
+    private static final byte NO_STATUS = -1;
+
+    /**
+     * @param capacity ring size, rounded up to a power of two
+     */
+    public FlightStatusEvents(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        this.mask = size - 1;
+        this.flightIds = new long[size];
+        this.flightNumbers = new String[size];
+        this.previousStatuses = new byte[size];
+        this.statuses = new byte[size];
+        this.gates = new String[size];
+        this.terminals = new String[size];
+        this.timestamps = new long[size];
+    }
+
+    // Publishing
+    /**
+     * Publishes the flight's current status, gate and terminal. Must only be
+     * called by one thread at a time. Returns the event's sequence.
+     */
+    public long publish(Flight flight, FlightStatus previousStatus, long timestampMillis) {
+        long sequence = cursor.get() + 1;
+        awaitCapacity(sequence);
+        int slot = (int) sequence & mask;
+        flightIds[slot] = flight.getId() == null ? 0 : flight.getId();
+        flightNumbers[slot] = flight.getFlightNumber();
+        previousStatuses[slot] = ordinal(previousStatus);
+        statuses[slot] = ordinal(flight.getStatus());
+        gates[slot] = flight.getGate();
+        terminals[slot] = flight.getTerminal();
+        timestamps[slot] = timestampMillis;
+        cursor.lazySet(sequence);
+        return sequence;
+    }
+
+    private void awaitCapacity(long sequence) {
+        long wrapPoint = sequence - (mask + 1);
+        if (wrapPoint <= cachedGate) {
+            return;
+        }
+        for (;;) {
+            long gate = minimumConsumed(sequence - 1);
+            if (wrapPoint <= gate) {
+                cachedGate = gate;
+                return;
+            }
+            LockSupport.parkNanos(1_000);
+        }
+    }
+
+    private long minimumConsumed(long fallback) {
+        long minimum = fallback;
+        for (Subscription subscription : subscriptions) {
+            minimum = Math.min(minimum, subscription.consumed.get());
+        }
+        return minimum;
+    }
+
+    private static byte ordinal(FlightStatus status) {
+        return status == null ? NO_STATUS : (byte) status.ordinal();
+    }
+
+    public long getCursor() {
+        return cursor.get();
+    }
+
+    // Subscribing
+    /**
+     * Starts delivering events published from now on to the handler, on a
+     * thread from the factory.
+     */
+    public Subscription subscribe(Handler handler, ThreadFactory threadFactory) {
+        Subscription subscription = new Subscription(handler);
+        subscription.consumed.set(cursor.get());
+        subscriptions.add(subscription);
+        Thread thread = threadFactory.newThread(subscription::run);
+        thread.start();
+        return subscription;
+    }
+
+    /**
+     * Receives events. The event is a view of a ring slot and is only valid
+     * during the call.
+     */
+    @FunctionalInterface
+    public interface Handler {
+        void onEvent(Event event, long sequence, boolean endOfBatch);
+    }
+
+    /**
+     * Read view of one event
+     */
+    public final class Event {
+        private int slot;
+
+        public long getFlightId() { return flightIds[slot]; }
+        public String getFlightNumber() { return flightNumbers[slot]; }
+        public FlightStatus getPreviousStatus() { return status(previousStatuses[slot]); }
+        public FlightStatus getStatus() { return status(statuses[slot]); }
+        public boolean isStatusChange() { return previousStatuses[slot] != statuses[slot]; }
+        public String getGate() { return gates[slot]; }
+        public String getTerminal() { return terminals[slot]; }
+        public long getTimestampMillis() { return timestamps[slot]; }
+
+        private FlightStatus status(byte ordinal) {
+            return ordinal == NO_STATUS ? null : STATUSES[ordinal];
+        }
+    }
+
+    /**
+     * One handler and how far it has consumed the ring
+     */
+    public final class Subscription {
+        private final Handler handler;
+        private final AtomicLong consumed = new AtomicLong();
+        private final LongAdder failures = new LongAdder();
+        private volatile boolean running = true;
+
+        Subscription(Handler handler) {
+            this.handler = handler;
+        }
+
+        public long getConsumed() { return consumed.get(); }
+        public long getFailures() { return failures.sum(); }
+
+        /**
+         * Stops the handler thread and releases the publisher from waiting on it
+         */
+        public void close() {
+            running = false;
+            subscriptions.remove(this);
+        }
+
+        private void run() {
+            Event event = new Event();
+            int idle = 0;
+            while (running) {
+                long next = consumed.get() + 1;
+                long available = cursor.get();
+                if (next > available) {
+                    idle = idle(idle);
+                    continue;
+                }
+                idle = 0;
+                for (long sequence = next; sequence <= available; sequence++) {
+                    event.slot = (int) sequence & mask;
+                    try {
+                        handler.onEvent(event, sequence, sequence == available);
+                    } catch (RuntimeException e) {
+                        failures.increment();
+                    }
+                }
+                consumed.lazySet(available);
+            }
+        }
+
+        private int idle(int rounds) {
+            if (rounds < 100) {
+                Thread.onSpinWait();
+            } else if (rounds < 200) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(50_000);
+            }
+            return rounds + 1;
+        }
+    }
+}
@@ -0,0 +1,488 @@
+package com.smartwings.status;
+
+import com.smartwings.model.FlightStatus;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Flight Status Push Server
+ * Server-sent events channel that pushes status, gate and terminal changes
+ * from the FlightStatusEvents stream to subscribers by flight number:
+ *
+ *   GET /status?flights=SW101,SW202
+ *
+ * All connections are served by one non-blocking event loop, so idle
+ * subscribers cost a socket and a small object each rather than a thread;
+ * 100k subscribers need the process file descriptor limit raised to match.
+ *
+ * Each event is encoded once and shared by every watcher of the flight. A
+ * subscriber's queue holds at most one pending event per flight it watches:
+ * a newer event for a flight replaces the one not yet written, so slow
+ * consumers receive the latest state instead of an ever-growing backlog.
+ *
+ * A failed accept, such as running out of file descriptors or a client
+ * resetting mid-handshake, drops only that connection. Accepting then pauses
+ * briefly so a full descriptor table does not spin the loop. If the loop
+ * itself dies the server closes, subscription included.
+ */
+public class FlightStatusPushServer implements Closeable {
+
+    public static final int MAX_FLIGHTS_PER_SUBSCRIBER = 16;
+
+    private static final int MAX_REQUEST_BYTES = 4096;
+    private static final long HEARTBEAT_MILLIS = 15_000;
+    private static final long ACCEPT_BACKOFF_MILLIS = 100;
+    private static final System.Logger LOG = System.getLogger(FlightStatusPushServer.class.getName());
+    private static final String HEARTBEAT_KEY = "";
+    private static final byte[] HEARTBEAT = ascii(": ping\n\n");
+    private static final byte[] STREAM_HEADERS = ascii("HTTP/1.1 200 OK\r\n"
+            + "Content-Type: text/event-stream\r\n"
+            + "Cache-Control: no-cache\r\n"
+            + "Connection: keep-alive\r\n"
+            + "\r\n"
+            + "retry: 5000\n\n");
+    private static final byte[] BAD_REQUEST = ascii("HTTP/1.1 400 Bad Request\r\n"
+            + "Content-Length: 0\r\nConnection: close\r\n\r\n");
+    private static final byte[] NOT_FOUND = ascii("HTTP/1.1 404 Not Found\r\n"
+            + "Content-Length: 0\r\nConnection: close\r\n\r\n");
+
+    private final FlightStatusEvents events;
+    private final InetSocketAddress address;
+    private final ThreadFactory threadFactory;
+    private final Map<String, Set<Connection>> watchers = new ConcurrentHashMap<>();
+    private final Queue<Connection> ready = new ConcurrentLinkedQueue<>();
+    private final ByteBuffer discard = ByteBuffer.allocate(1024);
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder acceptFailures = new LongAdder();
+
+    // Read by the event stream's thread, which may deliver before start()
+    // has returned
+    private volatile Selector selector;
+    private ServerSocketChannel server;
+    private SelectionKey serverKey;
+    private FlightStatusEvents.Subscription subscription;
+    private volatile boolean running;
+    private volatile int connections;
+    // Event loop only: when accepting resumes after a failure, 0 if not paused
+    private long acceptPausedUntil;
+
+    public FlightStatusPushServer(FlightStatusEvents events, InetSocketAddress address, ThreadFactory threadFactory) {
+        this.events = events;
+        this.address = address;
+        this.threadFactory = threadFactory;
+    }
+
+    // Lifecycle
+    public synchronized void start() throws IOException {
+        if (running) {
+            return;
+        }
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        server.configureBlocking(false);
+        server.bind(address, 4096);
+        serverKey = server.register(selector, SelectionKey.OP_ACCEPT);
+        acceptPausedUntil = 0;
+        running = true;
+        Selector loop = selector;
+        threadFactory.newThread(() -> run(loop)).start();
+        // Subscribe last: every event must find the selector open
+        subscription = events.subscribe(this::onEvent, threadFactory);
+    }
+
+    /**
+     * Stops the server; also releases the subscription of a server whose
+     * event loop has already died
+     */
+    @Override
+    public synchronized void close() {
+        running = false;
+        if (subscription != null) {
+            subscription.close();
+            subscription = null;
+        }
+        if (selector != null) {
+            selector.wakeup();
+        }
+    }
+
+    public InetSocketAddress getLocalAddress() throws IOException {
+        return (InetSocketAddress) server.getLocalAddress();
+    }
+
+    /**
+     * Open subscriber connections; written only by the event loop
+     */
+    public int getConnections() { return connections; }
+
+    /**
+     * Events replaced in a subscriber's queue before they could be written
+     */
+    public long getCoalesced() { return coalesced.sum(); }
+
+    /**
+     * Connections dropped while being accepted
+     */
+    public long getAcceptFailures() { return acceptFailures.sum(); }
+
+    // Fan-out, on the event stream's thread
+    private void onEvent(FlightStatusEvents.Event event, long sequence, boolean endOfBatch) {
+        String flightNumber = event.getFlightNumber();
+        Set<Connection> watching = flightNumber == null ? null : watchers.get(flightNumber);
+        if (watching != null && !watching.isEmpty()) {
+            byte[] frame = frame(event, sequence);
+            for (Connection connection : watching) {
+                connection.enqueue(flightNumber, frame);
+            }
+        }
+        Selector loop = selector;
+        if (endOfBatch && loop != null && !ready.isEmpty()) {
+            loop.wakeup();
+        }
+    }
+
+    static byte[] frame(FlightStatusEvents.Event event, long sequence) {
+        StringBuilder frame = new StringBuilder(192)
+                .append("id: ").append(sequence).append('\n')
+                .append("event: status\n")
+                .append("data: {\"flightNumber\":");
+        json(frame, event.getFlightNumber());
+        frame.append(",\"status\":");
+        json(frame, name(event.getStatus()));
+        frame.append(",\"previousStatus\":");
+        json(frame, name(event.getPreviousStatus()));
+        frame.append(",\"gate\":");
+        json(frame, event.getGate());
+        frame.append(",\"terminal\":");
+        json(frame, event.getTerminal());
+        frame.append(",\"timestamp\":").append(event.getTimestampMillis()).append("}\n\n");
+        return frame.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String name(FlightStatus status) {
+        return status == null ? null : status.name();
+    }
+
+    private static void json(StringBuilder out, String value) {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < 0x20) {
+                out.append(String.format("\\u%04x", (int) c));
+            } else {
+                out.append(c);
+            }
+        }
+        out.append('"');
+    }
+
+    // Event loop
+    private void run(Selector loop) {
+        long nextHeartbeat = System.currentTimeMillis() + HEARTBEAT_MILLIS;
+        try {
+            // A close() followed by start() hands the server to a new loop
+            while (running && selector == loop) {
+                if (acceptPausedUntil != 0 && System.currentTimeMillis() >= acceptPausedUntil) {
+                    serverKey.interestOps(SelectionKey.OP_ACCEPT);
+                    acceptPausedUntil = 0;
+                }
+                loop.select(acceptPausedUntil == 0 ? 1_000 : ACCEPT_BACKOFF_MILLIS);
+                Iterator<SelectionKey> keys = loop.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else {
+                        Connection connection = (Connection) key.attachment();
+                        if (key.isReadable()) {
+                            read(connection);
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            flush(connection);
+                        }
+                    }
+                }
+                Connection connection;
+                while ((connection = ready.poll()) != null) {
+                    flush(connection);
+                }
+                long now = System.currentTimeMillis();
+                if (now >= nextHeartbeat) {
+                    heartbeat(now);
+                    nextHeartbeat = now + HEARTBEAT_MILLIS;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            LOG.log(System.Logger.Level.ERROR, "Flight status event loop failed; closing the push server", e);
+        } finally {
+            // Unless a restart has replaced this loop's selector
+            synchronized (this) {
+                if (selector == loop) {
+                    close();
+                }
+            }
+            for (SelectionKey key : loop.keys()) {
+                if (key.attachment() instanceof Connection) {
+                    disconnect((Connection) key.attachment());
+                } else {
+                    closeQuietly(key.channel());
+                }
+            }
+            closeQuietly(loop);
+        }
+    }
+
+    private void accept() {
+        for (;;) {
+            SocketChannel channel;
+            try {
+                channel = server.accept();
+            } catch (IOException e) {
+                // Typically EMFILE: the pending connection stays in the
+                // backlog, so retrying at once would spin
+                acceptFailures.increment();
+                serverKey.interestOps(0);
+                acceptPausedUntil = System.currentTimeMillis() + ACCEPT_BACKOFF_MILLIS;
+                return;
+            }
+            if (channel == null) {
+                return;
+            }
+            try {
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                Connection connection = new Connection(channel, System.currentTimeMillis());
+                connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+                connections++;
+            } catch (IOException e) {
+                // The client went away during setup
+                acceptFailures.increment();
+                closeQuietly(channel);
+            }
+        }
+    }
+
+    private void read(Connection connection) {
+        try {
+            if (connection.request == null) {
+                // Subscribers do not send anything after the request
+                discard.clear();
+                if (connection.channel.read(discard) < 0) {
+                    disconnect(connection);
+                }
+                return;
+            }
+            if (connection.channel.read(connection.request) < 0) {
+                disconnect(connection);
+                return;
+            }
+            String head = requestHead(connection.request);
+            if (head != null) {
+                connection.request = null;
+                subscribe(connection, head);
+            } else if (!connection.request.hasRemaining()) {
+                reject(connection, BAD_REQUEST);
+            }
+        } catch (IOException e) {
+            disconnect(connection);
+        }
+    }
+
+    private static String requestHead(ByteBuffer request) {
+        int length = request.position();
+        for (int i = 3; i < length; i++) {
+            if (request.get(i - 3) == '\r' && request.get(i - 2) == '\n'
+                    && request.get(i - 1) == '\r' && request.get(i) == '\n') {
+                return new String(request.array(), 0, i, StandardCharsets.ISO_8859_1);
+            }
+        }
+        return null;
+    }
+
+    private void subscribe(Connection connection, String head) {
+        int lineEnd = head.indexOf("\r\n");
+        String[] requestLine = (lineEnd < 0 ? head : head.substring(0, lineEnd)).split(" ");
+        if (requestLine.length != 3 || !requestLine[0].equals("GET")) {
+            reject(connection, BAD_REQUEST);
+            return;
+        }
+        String target = requestLine[1];
+        String prefix = "/status?flights=";
+        if (!target.startsWith(prefix)) {
+            reject(connection, NOT_FOUND);
+            return;
+        }
+        String[] flights = URLDecoder.decode(target.substring(prefix.length()), StandardCharsets.UTF_8).split(",");
+        if (flights.length > MAX_FLIGHTS_PER_SUBSCRIBER) {
+            reject(connection, BAD_REQUEST);
+            return;
+        }
+        connection.flights = flights;
+        for (String flight : flights) {
+            watchers.computeIfAbsent(flight, f -> ConcurrentHashMap.newKeySet()).add(connection);
+        }
+        connection.writing = ByteBuffer.wrap(STREAM_HEADERS);
+        flush(connection);
+    }
+
+    private void reject(Connection connection, byte[] response) {
+        try {
+            connection.channel.write(ByteBuffer.wrap(response));
+        } catch (IOException ignored) {
+            // Closing anyway
+        }
+        disconnect(connection);
+    }
+
+    private void flush(Connection connection) {
+        try {
+            for (;;) {
+                if (connection.writing == null || !connection.writing.hasRemaining()) {
+                    connection.writing = connection.drain();
+                    if (connection.writing == null) {
+                        connection.key.interestOps(SelectionKey.OP_READ);
+                        return;
+                    }
+                }
+                connection.channel.write(connection.writing);
+                if (connection.writing.hasRemaining()) {
+                    connection.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    return;
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            disconnect(connection);
+        }
+    }
+
+    private void heartbeat(long now) {
+        for (SelectionKey key : selector.keys()) {
+            if (!(key.attachment() instanceof Connection)) {
+                continue;
+            }
+            Connection connection = (Connection) key.attachment();
+            if (connection.request != null) {
+                // Never sent a complete request
+                if (now - connection.acceptedAt > HEARTBEAT_MILLIS) {
+                    disconnect(connection);
+                }
+            } else {
+                connection.enqueue(HEARTBEAT_KEY, HEARTBEAT);
+            }
+        }
+    }
+
+    private void disconnect(Connection connection) {
+        if (connection.closed) {
+            return;
+        }
+        connection.closed = true;
+        if (connection.flights != null) {
+            for (String flight : connection.flights) {
+                Set<Connection> watching = watchers.get(flight);
+                if (watching != null) {
+                    watching.remove(connection);
+                    if (watching.isEmpty()) {
+                        watchers.remove(flight, watching);
+                    }
+                }
+            }
+        }
+        connection.key.cancel();
+        closeQuietly(connection.channel);
+        connections--;
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException ignored) {
+            // Nothing left to release
+        }
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * One subscriber. Pending frames are keyed by flight so a newer event
+     * replaces an unwritten one; the event loop owns everything else.
+     */
+    private final class Connection {
+        final SocketChannel channel;
+        final long acceptedAt;
+        SelectionKey key;
+        ByteBuffer request = ByteBuffer.allocate(MAX_REQUEST_BYTES);
+        String[] flights;
+        ByteBuffer writing;
+        boolean closed;
+
+        // Guarded by this
+        private final Map<String, byte[]> pending = new LinkedHashMap<>();
+        private boolean queued;
+
+        Connection(SocketChannel channel, long acceptedAt) {
+            this.channel = channel;
+            this.acceptedAt = acceptedAt;
+        }
+
+        synchronized void enqueue(String flight, byte[] frame) {
+            if (pending.put(flight, frame) != null && frame != HEARTBEAT) {
+                coalesced.increment();
+            }
+            if (!queued) {
+                queued = true;
+                ready.add(this);
+            }
+        }
+
+        /**
+         * Takes all pending frames as one buffer, or null if there are none
+         */
+        synchronized ByteBuffer drain() {
+            queued = false;
+            if (pending.isEmpty()) {
+                return null;
+            }
+            int length = 0;
+            for (byte[] frame : pending.values()) {
+                length += frame.length;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(length);
+            for (byte[] frame : pending.values()) {
+                buffer.put(frame);
+            }
+            pending.clear();
+            return buffer.flip();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.smartwings.status;
+
+import com.smartwings.model.Flight;
+import com.smartwings.model.FlightStatus;
+
+import java.time.Clock;
+import java.util.Objects;
+
+/**
+ * Flight Status Service
+ * Applies status, gate and terminal changes to Flight entities through the
+ * status state machine and publishes each change to the event stream.
+ * Changes are serialized here, which makes this service the single writer
+ * of the stream. Persisting the entity is left to the caller.
+ */
+public class FlightStatusService {
+
+    private final FlightStatusEvents events;
+    private final Clock clock;
+
+    public FlightStatusService(FlightStatusEvents events, Clock clock) {
+        this.events = events;
+        this.clock = clock;
+    }
+
+    /**
+     * Moves the flight to a new status and publishes the change. Throws
+     * IllegalStateException for a transition the state machine forbids.
+     */
+    public synchronized void changeStatus(Flight flight, FlightStatus status) {
+        FlightStatus previous = flight.getStatus();
+        flight.transitionTo(status);
+        events.publish(flight, previous, clock.millis());
+    }
+
+    /**
+     * Updates gate and terminal, publishing only if either changed
+     */
+    public synchronized void changeGate(Flight flight, String gate, String terminal) {
+        if (Objects.equals(flight.getGate(), gate) && Objects.equals(flight.getTerminal(), terminal)) {
+            return;
+        }
+        flight.setGate(gate);
+        flight.setTerminal(terminal);
+        events.publish(flight, flight.getStatus(), clock.millis());
+    }
+}
@@ -0,0 +1,182 @@
+package com.smartwings.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Flight Validator
+ * The Flight constraints as plain comparisons, with the annotations'
+ * messages, for write paths where reflective Bean Validation dominates the
+ * cost: Flight's lifecycle callbacks and bulk imports. Keep the rules in
+ * step with the annotations on Flight.
+ *
+ * Also enforces the cross-field rules the annotations cannot express:
+ * arrival after departure, and no cabin with more seats available than it
+ * has.
+ *
+ * The single-value checks return the violation's message, or null if the
+ * value is valid, so callers holding raw values (e.g. parsed file rows) can
+ * apply the same rules without building a Flight.
+ */
+public final class FlightValidator {
+
+    private static final String[] PRICE_NAMES = {"Economy price", "Premium economy price", "Business price", "First class price"};
+    private static final String[] SEATS_MESSAGES = {
+            "Economy seats must be at least 1", "Premium economy seats cannot be negative",
+            "Business seats cannot be negative", "First class seats cannot be negative"
+    };
+    private static final String[] AVAILABLE_MESSAGES = {
+            "Economy available seats cannot exceed economy seats",
+            "Premium economy available seats cannot exceed premium economy seats",
+            "Business available seats cannot exceed business seats",
+            "First class available seats cannot exceed first class seats"
+    };
+    private static final TravelClass[] CABINS = TravelClass.values();
+
+    private FlightValidator() {}
+
+    /**
+     * Every violation's message, in field order; an empty list if the flight
+     * is valid
+     */
+    public static List<String> validate(Flight flight) {
+        List<String> violations = Collections.emptyList();
+        violations = add(violations, checkFlightNumber(flight.getFlightNumber()));
+        violations = add(violations, checkAirline(flight.getAirline()));
+        violations = add(violations, checkOriginAirport(flight.getOriginAirport()));
+        violations = add(violations, checkOriginCity(flight.getOriginCity()));
+        violations = add(violations, checkDestinationAirport(flight.getDestinationAirport()));
+        violations = add(violations, checkDestinationCity(flight.getDestinationCity()));
+        if (flight.getDepartureTime() == null) {
+            violations = add(violations, "Departure time is required");
+        }
+        if (flight.getArrivalTime() == null) {
+            violations = add(violations, "Arrival time is required");
+        }
+        violations = add(violations, checkSchedule(flight.getDepartureTime(), flight.getArrivalTime()));
+        violations = add(violations, checkAircraftType(flight.getAircraftType()));
+        for (TravelClass cabin : CABINS) {
+            violations = add(violations, checkFare(cabin, flight.getFareForClass(cabin)));
+        }
+        for (TravelClass cabin : CABINS) {
+            violations = add(violations, checkSeats(cabin, flight.getSeats(cabin), flight.getAvailable(cabin)));
+        }
+        violations = add(violations, checkGate(flight.getGate()));
+        violations = add(violations, checkTerminal(flight.getTerminal()));
+        violations = add(violations, checkNotes(flight.getNotes()));
+        return violations;
+    }
+
+    /**
+     * Throws IllegalArgumentException listing every violation
+     */
+    public static void requireValid(Flight flight) {
+        List<String> violations = validate(flight);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException("Invalid flight " + flight.getFlightNumber() + ": "
+                    + String.join("; ", violations));
+        }
+    }
+
+    private static List<String> add(List<String> violations, String violation) {
+        if (violation == null) {
+            return violations;
+        }
+        if (violations.isEmpty()) {
+            violations = new ArrayList<>(4);
+        }
+        violations.add(violation);
+        return violations;
+    }
+
+    // Single-value rules
+    public static String checkFlightNumber(String flightNumber) {
+        return required(flightNumber, 10, "Flight number is required", "Flight number must be at most 10 characters");
+    }
+
+    public static String checkAirline(String airline) {
+        return required(airline, 50, "Airline is required", "Airline name must be at most 50 characters");
+    }
+
+    public static String checkOriginAirport(String originAirport) {
+        return required(originAirport, 10, "Origin airport is required", "Origin airport code must be at most 10 characters");
+    }
+
+    public static String checkOriginCity(String originCity) {
+        return required(originCity, 100, "Origin city is required", "Origin city must be at most 100 characters");
+    }
+
+    public static String checkDestinationAirport(String destinationAirport) {
+        return required(destinationAirport, 10, "Destination airport is required",
+                "Destination airport code must be at most 10 characters");
+    }
+
+    public static String checkDestinationCity(String destinationCity) {
+        return required(destinationCity, 100, "Destination city is required",
+                "Destination city must be at most 100 characters");
+    }
+
+    public static String checkAircraftType(String aircraftType) {
+        return required(aircraftType, 50, "Aircraft type is required", "Aircraft type must be at most 50 characters");
+    }
+
+    public static String checkGate(String gate) {
+        return optional(gate, 10, "Gate must be at most 10 characters");
+    }
+
+    public static String checkTerminal(String terminal) {
+        return optional(terminal, 10, "Terminal must be at most 10 characters");
+    }
+
+    public static String checkNotes(String notes) {
+        return optional(notes, 500, "Notes must be at most 500 characters");
+    }
+
+    /**
+     * Arrival after departure; missing times are not this rule's violation
+     */
+    public static String checkSchedule(LocalDateTime departureTime, LocalDateTime arrivalTime) {
+        if (departureTime == null || arrivalTime == null || arrivalTime.isAfter(departureTime)) {
+            return null;
+        }
+        return "Arrival time must be after departure time";
+    }
+
+    /**
+     * @param fare in Money minor units, or Money.NONE
+     */
+    public static String checkFare(TravelClass cabin, long fare) {
+        if (fare == Money.NONE) {
+            return cabin == TravelClass.ECONOMY ? "Economy price is required" : null;
+        }
+        return fare > 0 ? null : PRICE_NAMES[cabin.ordinal()] + " must be greater than 0";
+    }
+
+    public static String checkPrice(TravelClass cabin, BigDecimal price) {
+        if (price == null) {
+            return cabin == TravelClass.ECONOMY ? "Economy price is required" : null;
+        }
+        return price.signum() > 0 ? null : PRICE_NAMES[cabin.ordinal()] + " must be greater than 0";
+    }
+
+    public static String checkSeats(TravelClass cabin, int seats, int available) {
+        if (seats < (cabin == TravelClass.ECONOMY ? 1 : 0)) {
+            return SEATS_MESSAGES[cabin.ordinal()];
+        }
+        return available > seats ? AVAILABLE_MESSAGES[cabin.ordinal()] : null;
+    }
+
+    private static String required(String value, int max, String missing, String tooLong) {
+        if (value == null || value.isBlank()) {
+            return missing;
+        }
+        return value.length() > max ? tooLong : null;
+    }
+
+    private static String optional(String value, int max, String tooLong) {
+        return value != null && value.length() > max ? tooLong : null;
+    }
+}
@@ -0,0 +1,349 @@
+package com.smartwings.search;
+
+import com.smartwings.model.Money;
+import com.smartwings.model.TravelClass;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Itinerary Search
+ * Direct and connecting itinerary search over a Timetable, one forward scan
+ * over the connections in departure order (connection scan). Partial
+ * itineraries are kept as labels per airport; a label is only discarded once
+ * k others at the same airport are at least as good on arrival, stops, price
+ * and departure, so the top k results are never pruned away.
+ *
+ * The timetable is immutable, so searches are thread-safe and the legs of a
+ * multi-city trip are searched in parallel.
+ */
+public class ItinerarySearch {
+
+    public enum SortBy {
+        PRICE,
+        DURATION
+    }
+
+    private final Timetable timetable;
+    private final int maxJourneyMinutes;
+
+    public ItinerarySearch(Timetable timetable, int maxJourneyMinutes) {
+        this.timetable = timetable;
+        this.maxJourneyMinutes = maxJourneyMinutes;
+    }
+
+    /**
+     * Best k itineraries from origin to destination departing on the day,
+     * with at most maxStops connections and the seats available on every leg.
+     */
+    public List<Itinerary> search(String origin, String destination, LocalDate day, TravelClass travelClass,
+                                  int seats, int maxStops, int k, SortBy sortBy) {
+        int originStop = timetable.stopOf(origin);
+        int destinationStop = timetable.stopOf(destination);
+        if (originStop < 0 || destinationStop < 0 || originStop == destinationStop || k <= 0) {
+            return Collections.emptyList();
+        }
+        return new Scan(originStop, destinationStop, Timetable.toMinute(day.atStartOfDay()),
+                travelClass.ordinal(), seats, maxStops, k, sortBy).run();
+    }
+
+    /**
+     * Searches every leg of a multi-city trip in parallel on the executor.
+     * Results are returned in leg order.
+     */
+    public List<List<Itinerary>> searchMultiCity(List<Leg> legs, TravelClass travelClass, int seats,
+                                                 int maxStops, int k, SortBy sortBy, Executor executor) {
+        List<CompletableFuture<List<Itinerary>>> pending = new ArrayList<>(legs.size());
+        for (Leg leg : legs) {
+            pending.add(CompletableFuture.supplyAsync(() -> search(leg.origin, leg.destination, leg.day,
+                    travelClass, seats, maxStops, k, sortBy), executor));
+        }
+        List<List<Itinerary>> results = new ArrayList<>(legs.size());
+        for (CompletableFuture<List<Itinerary>> leg : pending) {
+            results.add(leg.join());
+        }
+        return results;
+    }
+
+    /**
+     * State of one search. Labels are stored as parallel arrays and grouped
+     * per airport; results are kept sorted and bounded to k.
+     */
+    private final class Scan {
+        final int origin;
+        final int destination;
+        final int dayStart;
+        final int cabin;
+        final int seats;
+        final int maxStops;
+        final int k;
+        final SortBy sortBy;
+
+        // Labels
+        int labelCount;
+        int[] parent = new int[64];
+        int[] connection = new int[64];
+        int[] arrival = new int[64];
+        int[] start = new int[64];
+        int[] stops = new int[64];
+        long[] cost = new long[64];
+        final int[][] labelsAt;
+        final int[] labelsAtCount;
+
+        // Results, best first
+        int resultCount;
+        final int[] resultParent;
+        final int[] resultConnection;
+        final long[] resultCost;
+        final int[] resultStart;
+        final int[] resultArrival;
+
+        Scan(int origin, int destination, int dayStart, int cabin, int seats, int maxStops, int k, SortBy sortBy) {
+            this.origin = origin;
+            this.destination = destination;
+            this.dayStart = dayStart;
+            this.cabin = cabin;
+            this.seats = seats;
+            this.maxStops = maxStops;
+            this.k = k;
+            this.sortBy = sortBy;
+            this.labelsAt = new int[timetable.stopCount()][];
+            this.labelsAtCount = new int[timetable.stopCount()];
+            this.resultParent = new int[k];
+            this.resultConnection = new int[k];
+            this.resultCost = new long[k];
+            this.resultStart = new int[k];
+            this.resultArrival = new int[k];
+        }
+
+        List<Itinerary> run() {
+            int dayEnd = dayStart + 24 * 60;
+            int horizon = dayEnd + maxJourneyMinutes;
+            int[] departureMinute = timetable.departureMinute;
+            for (int c = timetable.firstDepartingAtOrAfter(dayStart); c < departureMinute.length; c++) {
+                int departs = departureMinute[c];
+                if (departs >= horizon) {
+                    break;
+                }
+                int slot = c * TravelClass.COUNT + cabin;
+                if (timetable.available[slot] < seats) {
+                    continue;
+                }
+                long fare = timetable.prices[slot];
+                if (fare == Long.MAX_VALUE) {
+                    continue;
+                }
+                int from = timetable.departureStop[c];
+                int to = timetable.arrivalStop[c];
+                if (to == origin) {
+                    continue;
+                }
+                if (from == origin) {
+                    if (departs < dayEnd) {
+                        extend(-1, c, Money.times(fare, seats));
+                    }
+                    continue;
+                }
+                int connectBy = departs - timetable.minConnectionMinutes(from);
+                int[] waiting = labelsAt[from];
+                for (int i = 0, n = labelsAtCount[from]; i < n; i++) {
+                    int label = waiting[i];
+                    if (arrival[label] <= connectBy && stops[label] < maxStops && !visits(label, to)) {
+                        extend(label, c, Money.add(cost[label], Money.times(fare, seats)));
+                    }
+                }
+            }
+            return results();
+        }
+
+        void extend(int from, int c, long total) {
+            int departs = from < 0 ? timetable.departureMinute[c] : start[from];
+            int arrives = timetable.arrivalMinute[c];
+            if (arrives - departs > maxJourneyMinutes || worseThanResults(total, departs, arrives)) {
+                return;
+            }
+            int hops = from < 0 ? 0 : stops[from] + 1;
+            int at = timetable.arrivalStop[c];
+            if (at == destination) {
+                offerResult(from, c, total, departs, arrives);
+            } else if (hops < maxStops && !dominated(at, arrives, hops, total, departs)) {
+                addLabel(at, from, c, arrives, departs, hops, total);
+            }
+        }
+
+        boolean visits(int label, int stop) {
+            for (int l = label; l >= 0; l = parent[l]) {
+                int c = connection[l];
+                if (timetable.arrivalStop[c] == stop || timetable.departureStop[c] == stop) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean dominated(int stop, int arrives, int hops, long total, int departs) {
+            int[] labels = labelsAt[stop];
+            int dominators = 0;
+            for (int i = 0, n = labelsAtCount[stop]; i < n; i++) {
+                int l = labels[i];
+                if (arrival[l] <= arrives && stops[l] <= hops && cost[l] <= total && start[l] >= departs
+                        && ++dominators >= k) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void addLabel(int stop, int from, int c, int arrives, int departs, int hops, long total) {
+            if (labelCount == parent.length) {
+                int size = labelCount * 2;
+                parent = Arrays.copyOf(parent, size);
+                connection = Arrays.copyOf(connection, size);
+                arrival = Arrays.copyOf(arrival, size);
+                start = Arrays.copyOf(start, size);
+                stops = Arrays.copyOf(stops, size);
+                cost = Arrays.copyOf(cost, size);
+            }
+            int label = labelCount++;
+            parent[label] = from;
+            connection[label] = c;
+            arrival[label] = arrives;
+            start[label] = departs;
+            stops[label] = hops;
+            cost[label] = total;
+
+            int[] labels = labelsAt[stop];
+            int count = labelsAtCount[stop];
+            if (labels == null) {
+                labels = labelsAt[stop] = new int[8];
+            } else if (count == labels.length) {
+                labels = labelsAt[stop] = Arrays.copyOf(labels, count * 2);
+            }
+            labels[count] = label;
+            labelsAtCount[stop] = count + 1;
+        }
+
+        // Results
+        boolean worseThanResults(long total, int departs, int arrives) {
+            if (resultCount < k) {
+                return false;
+            }
+            int worst = k - 1;
+            return sortBy == SortBy.PRICE
+                    ? total > resultCost[worst]
+                    : arrives - departs > resultArrival[worst] - resultStart[worst];
+        }
+
+        int compare(long costA, int durationA, long costB, int durationB) {
+            if (sortBy == SortBy.PRICE) {
+                return costA != costB ? Long.compare(costA, costB) : Integer.compare(durationA, durationB);
+            }
+            return durationA != durationB ? Integer.compare(durationA, durationB) : Long.compare(costA, costB);
+        }
+
+        void offerResult(int from, int c, long total, int departs, int arrives) {
+            int duration = arrives - departs;
+            int position = resultCount;
+            while (position > 0 && compare(total, duration, resultCost[position - 1],
+                    resultArrival[position - 1] - resultStart[position - 1]) < 0) {
+                position--;
+            }
+            if (position >= k) {
+                return;
+            }
+            int last = Math.min(resultCount, k - 1);
+            for (int i = last; i > position; i--) {
+                resultParent[i] = resultParent[i - 1];
+                resultConnection[i] = resultConnection[i - 1];
+                resultCost[i] = resultCost[i - 1];
+                resultStart[i] = resultStart[i - 1];
+                resultArrival[i] = resultArrival[i - 1];
+            }
+            resultParent[position] = from;
+            resultConnection[position] = c;
+            resultCost[position] = total;
+            resultStart[position] = departs;
+            resultArrival[position] = arrives;
+            resultCount = Math.min(resultCount + 1, k);
+        }
+
+        List<Itinerary> results() {
+            List<Itinerary> itineraries = new ArrayList<>(resultCount);
+            for (int r = 0; r < resultCount; r++) {
+                int legs = 1;
+                for (int l = resultParent[r]; l >= 0; l = parent[l]) {
+                    legs++;
+                }
+                long[] flightIds = new long[legs];
+                flightIds[legs - 1] = timetable.flightIds[resultConnection[r]];
+                int i = legs - 2;
+                for (int l = resultParent[r]; l >= 0; l = parent[l]) {
+                    flightIds[i--] = timetable.flightIds[connection[l]];
+                }
+                itineraries.add(new Itinerary(flightIds, resultStart[r], resultArrival[r], resultCost[r]));
+            }
+            return itineraries;
+        }
+    }
+
+    /**
+     * One leg of a multi-city request
+     */
+    public static final class Leg {
+        private final String origin;
+        private final String destination;
+        private final LocalDate day;
+
+        public Leg(String origin, String destination, LocalDate day) {
+            this.origin = origin;
+            this.destination = destination;
+            this.day = day;
+        }
+
+        public String getOrigin() { return origin; }
+        public String getDestination() { return destination; }
+        public LocalDate getDay() { return day; }
+    }
+
+    /**
+     * A direct or connecting itinerary. The total price covers all requested seats.
+     */
+    public static final class Itinerary {
+        private final long[] flightIds;
+        private final int departureMinute;
+        private final int arrivalMinute;
+        private final long totalPriceMinor;
+
+        Itinerary(long[] flightIds, int departureMinute, int arrivalMinute, long totalPriceMinor) {
+            this.flightIds = flightIds;
+            this.departureMinute = departureMinute;
+            this.arrivalMinute = arrivalMinute;
+            this.totalPriceMinor = totalPriceMinor;
+        }
+
+        public long[] getFlightIds() { return flightIds.clone(); }
+        public int getStops() { return flightIds.length - 1; }
+        public LocalDateTime getDepartureTime() { return Timetable.fromMinute(departureMinute); }
+        public LocalDateTime getArrivalTime() { return Timetable.fromMinute(arrivalMinute); }
+        public int getDurationMinutes() { return arrivalMinute - departureMinute; }
+        public long getTotalPriceMinor() { return totalPriceMinor; }
+        public BigDecimal getTotalPrice() { return Money.toDecimal(totalPriceMinor); }
+
+        @Override
+        public String toString() {
+            return "Itinerary{" +
+                    "flightIds=" + Arrays.toString(flightIds) +
+                    ", departureTime=" + getDepartureTime() +
+                    ", arrivalTime=" + getArrivalTime() +
+                    ", totalPrice=" + getTotalPrice() +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.smartwings.pricing;
+
+import com.smartwings.model.TravelClass;
+
+import java.util.Map;
+
+/**
+ * Ladder Fare Policy
+ * FarePolicy that prices each cabin from its own FareLadder. Cabins without
+ * a configured ladder are sold at their base fare.
+ */
+public class LadderFarePolicy implements FarePolicy {
+
+    private final FareLadder[] ladders = new FareLadder[TravelClass.COUNT];
+
+    public LadderFarePolicy(Map<TravelClass, FareLadder> ladders) {
+        for (TravelClass travelClass : TravelClass.values()) {
+            this.ladders[travelClass.ordinal()] = ladders.getOrDefault(travelClass, FareLadder.flat());
+        }
+    }
+
+    @Override
+    public int bucket(TravelClass travelClass, int seats, int available, long minutesToDeparture) {
+        FareLadder ladder = ladders[travelClass.ordinal()];
+        return ladder.loadStep(seats, available) * ladder.timeSteps() + ladder.timeStep(minutesToDeparture);
+    }
+
+    @Override
+    public long fare(TravelClass travelClass, long baseFare, int bucket) {
+        FareLadder ladder = ladders[travelClass.ordinal()];
+        return ladder.apply(baseFare, bucket / ladder.timeSteps(), bucket % ladder.timeSteps());
+    }
+}
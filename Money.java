@@ -0,0 +1,49 @@
+package com.smartwings.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Money
+ * Fixed-point amounts held as a long count of minor units (cents), matching
+ * the scale-2 price columns. Pricing, sorting and ranking work on the long
+ * directly; BigDecimal is only produced at the JPA and API boundary.
+ * A missing amount is represented by NONE.
+ */
+public final class Money {
+
+    public static final int SCALE = 2;
+    public static final long NONE = Long.MIN_VALUE;
+
+    private Money() {}
+
+    /**
+     * Converts a decimal amount to minor units, rounding half-up to the
+     * column scale. Null becomes NONE.
+     */
+    public static long fromDecimal(BigDecimal amount) {
+        if (amount == null) {
+            return NONE;
+        }
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Converts minor units back to a scale-2 decimal. NONE becomes null.
+     */
+    public static BigDecimal toDecimal(long minor) {
+        return minor == NONE ? null : BigDecimal.valueOf(minor, SCALE);
+    }
+
+    public static boolean isPresent(long minor) {
+        return minor != NONE;
+    }
+
+    public static long add(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    public static long times(long minor, int quantity) {
+        return Math.multiplyExact(minor, (long) quantity);
+    }
+}
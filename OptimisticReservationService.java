@@ -0,0 +1,175 @@
+package com.smartwings.service;
+
+import com.smartwings.model.Flight;
+import com.smartwings.model.TravelClass;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityTransaction;
+import javax.persistence.OptimisticLockException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Optimistic Reservation Service
+ * Reserves and releases seats through the versioned Flight entity, retrying
+ * version conflicts a bounded number of times with jittered exponential backoff.
+ * Conflicts and retries are counted per flight to surface hot departures.
+ */
+public class OptimisticReservationService {
+
+    public enum Outcome {
+        APPLIED,
+        REJECTED,
+        NOT_FOUND,
+        CONFLICT
+    }
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final int maxAttempts;
+    private final long baseBackoffMicros;
+    private final long maxBackoffMicros;
+    private final Map<Long, ContentionStats> contention = new ConcurrentHashMap<>();
+
+    public OptimisticReservationService(EntityManagerFactory entityManagerFactory) {
+        this(entityManagerFactory, 5, 500, 20_000);
+    }
+
+    public OptimisticReservationService(EntityManagerFactory entityManagerFactory, int maxAttempts,
+                                        long baseBackoffMicros, long maxBackoffMicros) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1");
+        }
+        this.entityManagerFactory = entityManagerFactory;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffMicros = baseBackoffMicros;
+        this.maxBackoffMicros = maxBackoffMicros;
+    }
+
+    // Business methods
+    public Outcome reserveSeats(Long flightId, TravelClass travelClass, int seats) {
+        return update(flightId, flight -> flight.reserveSeats(travelClass, seats));
+    }
+
+    public Outcome releaseSeats(Long flightId, TravelClass travelClass, int seats) {
+        return update(flightId, flight -> flight.releaseSeats(travelClass, seats));
+    }
+
+    private Outcome update(Long flightId, SeatChange change) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return attempt(flightId, change);
+            } catch (RuntimeException e) {
+                if (!isVersionConflict(e)) {
+                    throw e;
+                }
+                ContentionStats stats = statsFor(flightId);
+                stats.conflicts.increment();
+                if (attempt >= maxAttempts) {
+                    stats.exhausted.increment();
+                    return Outcome.CONFLICT;
+                }
+                stats.retries.increment();
+                backoff(attempt);
+            }
+        }
+    }
+
+    private Outcome attempt(Long flightId, SeatChange change) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        EntityTransaction transaction = entityManager.getTransaction();
+        try {
+            transaction.begin();
+            Flight flight = entityManager.find(Flight.class, flightId);
+            if (flight == null) {
+                transaction.rollback();
+                return Outcome.NOT_FOUND;
+            }
+            if (!change.apply(flight)) {
+                transaction.rollback();
+                return Outcome.REJECTED;
+            }
+            transaction.commit();
+            return Outcome.APPLIED;
+        } finally {
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+            entityManager.close();
+        }
+    }
+
+    private void backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffMicros, baseBackoffMicros << Math.min(attempt - 1, 20));
+        long sleep = ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1);
+        try {
+            TimeUnit.MICROSECONDS.sleep(sleep);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while backing off seat reservation", e);
+        }
+    }
+
+    private static boolean isVersionConflict(Throwable e) {
+        // Providers report the conflict directly or wrapped in a RollbackException
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof OptimisticLockException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Contention statistics
+    private ContentionStats statsFor(Long flightId) {
+        return contention.computeIfAbsent(flightId, id -> new ContentionStats());
+    }
+
+    public ContentionStats getContention(Long flightId) {
+        return contention.getOrDefault(flightId, ContentionStats.NONE);
+    }
+
+    /**
+     * Flights ordered by conflict count, most contended first
+     */
+    public List<Long> getHottestFlights(int limit) {
+        List<Map.Entry<Long, ContentionStats>> entries = new ArrayList<>(contention.entrySet());
+        entries.sort(Comparator.comparingLong(
+                (Map.Entry<Long, ContentionStats> e) -> e.getValue().getConflicts()).reversed());
+        List<Long> hottest = new ArrayList<>(Math.min(limit, entries.size()));
+        for (int i = 0; i < entries.size() && i < limit; i++) {
+            hottest.add(entries.get(i).getKey());
+        }
+        return hottest;
+    }
+
+    public void resetContention() {
+        contention.clear();
+    }
+
+    @FunctionalInterface
+    private interface SeatChange {
+        boolean apply(Flight flight);
+    }
+
+    /**
+     * Per-flight optimistic locking counters
+     */
+    public static final class ContentionStats {
+        static final ContentionStats NONE = new ContentionStats();
+
+        private final LongAdder conflicts = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder exhausted = new LongAdder();
+
+        public long getConflicts() { return conflicts.sum(); }
+        public long getRetries() { return retries.sum(); }
+        public long getExhausted() { return exhausted.sum(); }
+    }
+}
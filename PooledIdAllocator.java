@@ -0,0 +1,62 @@
+package com.smartwings.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Pooled Id Allocator
+ * Hands out ids from a database sequence to bulk JDBC writers such as
+ * ScheduleImporter, one sequence call per allocationSize ids. It follows the
+ * pooled scheme of the JPA mapping: the sequence increments by the
+ * allocation size and a value V reserves the ids V - allocationSize + 1 to
+ * V, so ids drawn here never collide with ids the JPA provider draws from
+ * the same sequence.
+ *
+ * Not thread-safe; use one allocator per writer.
+ */
+public class PooledIdAllocator {
+
+    private final String nextValueSql;
+    private final int allocationSize;
+    private long next;
+    private long hi = -1;
+
+    /**
+     * @param nextValueSql   query returning the sequence's next value, e.g.
+     *                       "SELECT nextval('flight_id_seq')" on PostgreSQL
+     *                       or "VALUES NEXT VALUE FOR flight_id_seq"
+     * @param allocationSize the sequence's increment
+     */
+    public PooledIdAllocator(String nextValueSql, int allocationSize) {
+        if (allocationSize < 1) {
+            throw new IllegalArgumentException("allocationSize must be at least 1");
+        }
+        this.nextValueSql = nextValueSql;
+        this.allocationSize = allocationSize;
+    }
+
+    public long nextId(Connection connection) throws SQLException {
+        if (next > hi) {
+            hi = nextValue(connection);
+            // A fresh sequence starts below the allocation size
+            next = Math.max(hi - allocationSize + 1, 1);
+        }
+        return next++;
+    }
+
+    public int getAllocationSize() {
+        return allocationSize;
+    }
+
+    private long nextValue(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(nextValueSql);
+             ResultSet result = statement.executeQuery()) {
+            if (!result.next()) {
+                throw new SQLException("No value from " + nextValueSql);
+            }
+            return result.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.smartwings.search;
+
+import com.smartwings.model.Flight;
+import com.smartwings.model.Money;
+import com.smartwings.model.TravelClass;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Round Trip Pairer
+ * Streams outbound/return pairs in ascending combined fare without building
+ * the cross product. Both legs are sorted by fare once; pairs are then drawn
+ * from a min-heap frontier over (outbound rank, return rank), where each
+ * popped pair pushes at most two successors. Producing the best k pairs costs
+ * O((n + m) log(n + m) + k' log k'), with k' the pairs inspected, which only
+ * exceeds k when cheap pairs are rejected for timing.
+ *
+ * A pair is valid when the return departs at least the minimum turnaround
+ * after the outbound arrives. Flights without a fare or without the
+ * requested seats in the cabin are dropped up front.
+ */
+public class RoundTripPairer {
+
+    private final Flight[] outbound;
+    private final Flight[] inbound;
+    private final long[] outboundFares;
+    private final long[] inboundFares;
+    private final int minTurnaroundMinutes;
+
+    // Frontier: min-heap keyed on combined fare, entries are (outbound, return) ranks
+    private long[] heapFare = new long[16];
+    private int[] heapOut = new int[16];
+    private int[] heapIn = new int[16];
+    private int heapSize;
+
+    private Flight currentOutbound;
+    private Flight currentInbound;
+    private long currentFare;
+
+    public RoundTripPairer(List<Flight> outboundFlights, List<Flight> returnFlights, TravelClass travelClass,
+                           int seats, int minTurnaroundMinutes) {
+        this.minTurnaroundMinutes = minTurnaroundMinutes;
+        this.outbound = sellableByFare(outboundFlights, travelClass, seats);
+        this.inbound = sellableByFare(returnFlights, travelClass, seats);
+        this.outboundFares = fares(outbound, travelClass);
+        this.inboundFares = fares(inbound, travelClass);
+        if (outbound.length > 0 && inbound.length > 0) {
+            push(0, 0);
+        }
+    }
+
+    /**
+     * Advances to the next cheapest valid pair. Returns false when exhausted.
+     */
+    public boolean next() {
+        while (heapSize > 0) {
+            int out = heapOut[0];
+            int in = heapIn[0];
+            long fare = heapFare[0];
+            pop();
+            // Each pair is reached from exactly one parent: the return rank is
+            // advanced always, the outbound rank only along the first column
+            if (in + 1 < inbound.length) {
+                push(out, in + 1);
+            }
+            if (in == 0 && out + 1 < outbound.length) {
+                push(out + 1, 0);
+            }
+            if (connects(outbound[out], inbound[in])) {
+                currentOutbound = outbound[out];
+                currentInbound = inbound[in];
+                currentFare = fare;
+                return true;
+            }
+        }
+        currentOutbound = null;
+        currentInbound = null;
+        return false;
+    }
+
+    public Flight getOutbound() { return currentOutbound; }
+    public Flight getReturn() { return currentInbound; }
+    public long getCombinedFareMinor() { return currentFare; }
+    public BigDecimal getCombinedFare() { return Money.toDecimal(currentFare); }
+
+    /**
+     * The k cheapest valid round trips
+     */
+    public List<RoundTrip> top(int k) {
+        List<RoundTrip> pairs = new ArrayList<>(Math.min(k, 64));
+        while (pairs.size() < k && next()) {
+            pairs.add(new RoundTrip(currentOutbound, currentInbound, currentFare));
+        }
+        return pairs;
+    }
+
+    private boolean connects(Flight out, Flight back) {
+        LocalDateTime earliestReturn = out.getArrivalTime().plusMinutes(minTurnaroundMinutes);
+        return !back.getDepartureTime().isBefore(earliestReturn);
+    }
+
+    private static Flight[] sellableByFare(List<Flight> flights, TravelClass travelClass, int seats) {
+        List<Flight> sellable = new ArrayList<>(flights.size());
+        for (Flight flight : flights) {
+            if (Money.isPresent(flight.getFareForClass(travelClass)) && flight.hasSeatsAvailable(travelClass, seats)) {
+                sellable.add(flight);
+            }
+        }
+        sellable.sort(Comparator.comparingLong((Flight flight) -> flight.getFareForClass(travelClass)));
+        return sellable.toArray(new Flight[0]);
+    }
+
+    private static long[] fares(Flight[] flights, TravelClass travelClass) {
+        long[] fares = new long[flights.length];
+        for (int i = 0; i < flights.length; i++) {
+            fares[i] = flights[i].getFareForClass(travelClass);
+        }
+        return fares;
+    }
+
+    // Frontier heap
+    private void push(int out, int in) {
+        if (heapSize == heapFare.length) {
+            int size = heapSize * 2;
+            heapFare = Arrays.copyOf(heapFare, size);
+            heapOut = Arrays.copyOf(heapOut, size);
+            heapIn = Arrays.copyOf(heapIn, size);
+        }
+        long fare = Money.add(outboundFares[out], inboundFares[in]);
+        int i = heapSize++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heapFare[parent] <= fare) {
+                break;
+            }
+            move(parent, i);
+            i = parent;
+        }
+        heapFare[i] = fare;
+        heapOut[i] = out;
+        heapIn[i] = in;
+    }
+
+    private void pop() {
+        int last = --heapSize;
+        if (last == 0) {
+            return;
+        }
+        long fare = heapFare[last];
+        int out = heapOut[last];
+        int in = heapIn[last];
+        int i = 0;
+        for (;;) {
+            int child = 2 * i + 1;
+            if (child >= last) {
+                break;
+            }
+            if (child + 1 < last && heapFare[child + 1] < heapFare[child]) {
+                child++;
+            }
+            if (heapFare[child] >= fare) {
+                break;
+            }
+            move(child, i);
+            i = child;
+        }
+        heapFare[i] = fare;
+        heapOut[i] = out;
+        heapIn[i] = in;
+    }
+
+    private void move(int from, int to) {
+        heapFare[to] = heapFare[from];
+        heapOut[to] = heapOut[from];
+        heapIn[to] = heapIn[from];
+    }
+
+    /**
+     * An outbound and return flight with their combined per-seat fare
+     */
+    public static final class RoundTrip {
+        private final Flight outbound;
+        private final Flight inbound;
+        private final long combinedFareMinor;
+
+        RoundTrip(Flight outbound, Flight inbound, long combinedFareMinor) {
+            this.outbound = outbound;
+            this.inbound = inbound;
+            this.combinedFareMinor = combinedFareMinor;
+        }
+
+        public Flight getOutbound() { return outbound; }
+        public Flight getReturn() { return inbound; }
+        public long getCombinedFareMinor() { return combinedFareMinor; }
+        public BigDecimal getCombinedFare() { return Money.toDecimal(combinedFareMinor); }
+    }
+}
@@ -0,0 +1,285 @@
+package com.smartwings.search;
+
+import com.smartwings.model.CodeDictionary;
+import com.smartwings.model.Flight;
+import com.smartwings.model.TravelClass;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Route Day Index
+ * In-memory index from (origin, destination, departure day) to the flights
+ * operating it. Each day holds an immutable slice of parallel arrays sorted by
+ * departure minute, carrying per-cabin availability so a search never touches
+ * the Flight entities. Routes are keyed by the CodeDictionary ids of their
+ * airports.
+ *
+ * Readers are lock-free and always see a consistent slice. Writers are
+ * serialized and replace the affected slice copy-on-write, which keeps
+ * incremental updates cheap because a route-day holds few flights.
+ */
+public class RouteDayIndex {
+
+    private static final long[] NO_FLIGHTS = new long[0];
+
+    private final Map<Long, RouteDays> routes = new ConcurrentHashMap<>();
+    private final Map<Long, Placement> placements = new ConcurrentHashMap<>();
+
+    // Updates
+    /**
+     * Indexes a flight, or moves and refreshes it if it is already indexed.
+     */
+    public synchronized void upsert(Flight flight) {
+        Long flightId = flight.getId();
+        RouteDays route = routeFor(flight.getOriginAirportId(), flight.getDestinationAirportId());
+        LocalDateTime departure = flight.getDepartureTime();
+        long day = departure.toLocalDate().toEpochDay();
+        int minute = departure.getHour() * 60 + departure.getMinute();
+
+        Placement previous = placements.get(flightId);
+        if (previous != null && (previous.route != route || previous.day != day)) {
+            previous.route.remove(previous.day, flightId);
+        }
+        route.put(day, flightId, minute, availabilityOf(flight));
+        if (previous == null || previous.route != route || previous.day != day) {
+            placements.put(flightId, new Placement(route, day));
+        }
+    }
+
+    /**
+     * Refreshes only the availability of an indexed flight; cheaper than
+     * upsert when the route and departure are known not to have changed.
+     */
+    public synchronized boolean updateAvailability(Long flightId, TravelClass travelClass, int available) {
+        Placement placement = placements.get(flightId);
+        return placement != null && placement.route.setAvailable(placement.day, flightId, travelClass, available);
+    }
+
+    public synchronized void remove(Long flightId) {
+        Placement placement = placements.remove(flightId);
+        if (placement != null) {
+            placement.route.remove(placement.day, flightId);
+        }
+    }
+
+    public int size() {
+        return placements.size();
+    }
+
+    // Lookups
+    /**
+     * The flights on the route-day ordered by departure, or an empty slice.
+     */
+    public DaySlice slice(String origin, String destination, LocalDate day) {
+        return slice(CodeDictionary.AIRPORTS.find(origin), CodeDictionary.AIRPORTS.find(destination), day);
+    }
+
+    /**
+     * As slice, by airport ids
+     */
+    public DaySlice slice(int origin, int destination, LocalDate day) {
+        RouteDays route = routes.get(CodeDictionary.pair(origin, destination));
+        DaySlice slice = route == null ? null : route.days.get(day.toEpochDay());
+        return slice == null ? DaySlice.EMPTY : slice;
+    }
+
+    /**
+     * Ids of the flights on the route-day with at least the requested seats
+     * in the cabin, in departure order.
+     */
+    public long[] search(String origin, String destination, LocalDate day, TravelClass travelClass, int seats) {
+        return search(origin, destination, day, travelClass, seats, 0, 24 * 60);
+    }
+
+    /**
+     * As search, restricted to departures in [fromMinute, toMinute) of the day.
+     */
+    public long[] search(String origin, String destination, LocalDate day, TravelClass travelClass, int seats,
+                         int fromMinute, int toMinute) {
+        return search(CodeDictionary.AIRPORTS.find(origin), CodeDictionary.AIRPORTS.find(destination), day,
+                travelClass, seats, fromMinute, toMinute);
+    }
+
+    /**
+     * As search, by airport ids
+     */
+    public long[] search(int origin, int destination, LocalDate day, TravelClass travelClass, int seats,
+                         int fromMinute, int toMinute) {
+        DaySlice slice = slice(origin, destination, day);
+        int from = slice.firstAtOrAfter(fromMinute);
+        int to = slice.firstAtOrAfter(toMinute);
+        if (from >= to) {
+            return NO_FLIGHTS;
+        }
+        long[] hits = new long[to - from];
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            if (slice.available(i, travelClass) >= seats) {
+                hits[count++] = slice.flightIds[i];
+            }
+        }
+        return count == hits.length ? hits : Arrays.copyOf(hits, count);
+    }
+
+    private RouteDays routeFor(int origin, int destination) {
+        return routes.computeIfAbsent(CodeDictionary.pair(origin, destination), route -> new RouteDays());
+    }
+
+    private static int[] availabilityOf(Flight flight) {
+        int[] available = new int[TravelClass.COUNT];
+        for (TravelClass travelClass : TravelClass.values()) {
+            available[travelClass.ordinal()] = flight.getAvailable(travelClass);
+        }
+        return available;
+    }
+
+    /**
+     * Where an indexed flight currently lives
+     */
+    private static final class Placement {
+        final RouteDays route;
+        final long day;
+
+        Placement(RouteDays route, long day) {
+            this.route = route;
+            this.day = day;
+        }
+    }
+
+    /**
+     * Slices of one route by epoch day
+     */
+    private static final class RouteDays {
+        final Map<Long, DaySlice> days = new ConcurrentHashMap<>();
+
+        void put(long day, long flightId, int minute, int[] available) {
+            DaySlice slice = days.getOrDefault(day, DaySlice.EMPTY);
+            days.put(day, slice.with(flightId, minute, available));
+        }
+
+        boolean setAvailable(long day, long flightId, TravelClass travelClass, int available) {
+            DaySlice slice = days.get(day);
+            DaySlice updated = slice == null ? null : slice.withAvailable(flightId, travelClass, available);
+            if (updated == null) {
+                return false;
+            }
+            days.put(day, updated);
+            return true;
+        }
+
+        void remove(long day, long flightId) {
+            DaySlice slice = days.get(day);
+            if (slice == null) {
+                return;
+            }
+            DaySlice remaining = slice.without(flightId);
+            if (remaining.size() == 0) {
+                days.remove(day);
+            } else {
+                days.put(day, remaining);
+            }
+        }
+    }
+
+    /**
+     * Immutable flights of one route-day, sorted by departure minute.
+     * Availability is stored row-major with TravelClass.COUNT entries per flight.
+     */
+    public static final class DaySlice {
+        static final DaySlice EMPTY = new DaySlice(NO_FLIGHTS, new int[0], new int[0]);
+
+        final long[] flightIds;
+        final int[] minutes;
+        final int[] available;
+
+        private DaySlice(long[] flightIds, int[] minutes, int[] available) {
+            this.flightIds = flightIds;
+            this.minutes = minutes;
+            this.available = available;
+        }
+
+        public int size() { return flightIds.length; }
+        public long flightId(int i) { return flightIds[i]; }
+        public int departureMinute(int i) { return minutes[i]; }
+        public int available(int i, TravelClass travelClass) { return available[i * TravelClass.COUNT + travelClass.ordinal()]; }
+
+        /**
+         * Position of the first departure at or after the minute of day
+         */
+        public int firstAtOrAfter(int minute) {
+            int low = 0;
+            int high = minutes.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (minutes[mid] < minute) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        int indexOf(long flightId) {
+            for (int i = 0; i < flightIds.length; i++) {
+                if (flightIds[i] == flightId) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        DaySlice with(long flightId, int minute, int[] cabins) {
+            DaySlice base = indexOf(flightId) < 0 ? this : without(flightId);
+            int n = base.flightIds.length;
+            int at = base.firstAtOrAfter(minute + 1);
+            long[] ids = new long[n + 1];
+            int[] mins = new int[n + 1];
+            int[] avail = new int[(n + 1) * TravelClass.COUNT];
+            System.arraycopy(base.flightIds, 0, ids, 0, at);
+            System.arraycopy(base.minutes, 0, mins, 0, at);
+            System.arraycopy(base.available, 0, avail, 0, at * TravelClass.COUNT);
+            ids[at] = flightId;
+            mins[at] = minute;
+            System.arraycopy(cabins, 0, avail, at * TravelClass.COUNT, TravelClass.COUNT);
+            System.arraycopy(base.flightIds, at, ids, at + 1, n - at);
+            System.arraycopy(base.minutes, at, mins, at + 1, n - at);
+            System.arraycopy(base.available, at * TravelClass.COUNT, avail, (at + 1) * TravelClass.COUNT,
+                    (n - at) * TravelClass.COUNT);
+            return new DaySlice(ids, mins, avail);
+        }
+
+        DaySlice withAvailable(long flightId, TravelClass travelClass, int count) {
+            int i = indexOf(flightId);
+            if (i < 0) {
+                return null;
+            }
+            int[] avail = available.clone();
+            avail[i * TravelClass.COUNT + travelClass.ordinal()] = count;
+            return new DaySlice(flightIds, minutes, avail);
+        }
+
+        DaySlice without(long flightId) {
+            int i = indexOf(flightId);
+            if (i < 0) {
+                return this;
+            }
+            int n = flightIds.length;
+            long[] ids = new long[n - 1];
+            int[] mins = new int[n - 1];
+            int[] avail = new int[(n - 1) * TravelClass.COUNT];
+            System.arraycopy(flightIds, 0, ids, 0, i);
+            System.arraycopy(minutes, 0, mins, 0, i);
+            System.arraycopy(available, 0, avail, 0, i * TravelClass.COUNT);
+            System.arraycopy(flightIds, i + 1, ids, i, n - i - 1);
+            System.arraycopy(minutes, i + 1, mins, i, n - i - 1);
+            System.arraycopy(available, (i + 1) * TravelClass.COUNT, avail, i * TravelClass.COUNT,
+                    (n - i - 1) * TravelClass.COUNT);
+            return new DaySlice(ids, mins, avail);
+        }
+    }
+}
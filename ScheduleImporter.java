@@ -0,0 +1,562 @@
+package com.smartwings.schedule;
+
+import com.smartwings.model.FlightValidator;
+import com.smartwings.model.TravelClass;
+import com.smartwings.repository.PooledIdAllocator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Clock;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Schedule Importer
+ * Bulk loads seasonal schedule files into the flights table over JDBC,
+ * without going through Flight entities. Persisting entities one at a time
+ * costs an identity round trip and an onCreate call per row and rules out
+ * insert batching.
+ *
+ * Files are streamed a line at a time, as CSV or fixed-width, with fields
+ * in FIELDS order. Each row is checked with FlightValidator's rules, the
+ * Flight constraints as plain comparisons, and valid rows are sent as
+ * multi-row INSERT statements in JDBC batches. As onCreate would, the
+ * importer sets created_at and updated_at (to the import's start time) and
+ * starts every cabin's available count at its capacity. Invalid rows are
+ * counted and skipped. Ids are drawn in blocks from the flight id sequence,
+ * so inserts need no generated-key round trips.
+ *
+ * The import commits every commitRows rows, so when it fails (e.g. on a
+ * lost connection) the chunks committed before the failure stay loaded. A
+ * row whose flight number is already in the table, or earlier in the file,
+ * is rejected rather than inserted: each statement's flight numbers are
+ * looked up first, one query per statement. Re-running the same file after
+ * a failure therefore loads only the rows that are missing and reports the
+ * rest as rejected. Two imports running at once can still collide on the
+ * unique constraint.
+ */
+public class ScheduleImporter {
+
+    public static final List<String> FIELDS = List.of(
+            "flight_number", "airline", "origin_airport", "origin_city", "destination_airport",
+            "destination_city", "departure_time", "arrival_time", "aircraft_type",
+            "economy_price", "premium_economy_price", "business_price", "first_class_price",
+            "economy_seats", "premium_economy_seats", "business_seats", "first_class_seats",
+            "gate", "terminal", "notes");
+
+    private static final int FIELD_COUNT = FIELDS.size();
+    private static final int FIRST_PRICE_FIELD = 9;
+    private static final int FIRST_SEATS_FIELD = FIRST_PRICE_FIELD + TravelClass.COUNT;
+    private static final int MAX_ERRORS = 100;
+    private static final int MAX_PARAMETERS = 65_535;
+
+    private static final TravelClass[] CABINS = TravelClass.values();
+
+    private static final List<String> COLUMNS = new ArrayList<>();
+
+    static {
+        COLUMNS.add("id");
+        COLUMNS.addAll(FIELDS.subList(0, FIRST_PRICE_FIELD));
+        for (TravelClass travelClass : TravelClass.values()) {
+            COLUMNS.add(travelClass.getColumnPrefix() + "_price");
+        }
+        for (TravelClass travelClass : TravelClass.values()) {
+            COLUMNS.add(travelClass.getColumnPrefix() + "_seats");
+        }
+        for (TravelClass travelClass : TravelClass.values()) {
+            COLUMNS.add(travelClass.getColumnPrefix() + "_available");
+        }
+        COLUMNS.addAll(List.of("gate", "terminal", "notes", "created_at", "updated_at"));
+    }
+
+    private final LineParser parser;
+    private final PooledIdAllocator ids;
+    private final int rowsPerStatement;
+    private final int commitRows;
+    private final Clock clock;
+
+    /**
+     * @param rowsPerStatement rows per INSERT statement; their parameters
+     *                         must stay within the driver's limit
+     * @param commitRows       rows per JDBC batch and transaction
+     */
+    public ScheduleImporter(LineParser parser, PooledIdAllocator ids, int rowsPerStatement, int commitRows,
+                            Clock clock) {
+        if (rowsPerStatement < 1 || rowsPerStatement * COLUMNS.size() > MAX_PARAMETERS) {
+            throw new IllegalArgumentException("rowsPerStatement must be between 1 and " + MAX_PARAMETERS / COLUMNS.size());
+        }
+        if (commitRows < rowsPerStatement) {
+            throw new IllegalArgumentException("commitRows must be at least rowsPerStatement");
+        }
+        this.parser = parser;
+        this.ids = ids;
+        this.rowsPerStatement = rowsPerStatement;
+        this.commitRows = commitRows;
+        this.clock = clock;
+    }
+
+    // Line formats
+    /**
+     * Splits one line into fields, returning how many it holds, 0 if the line
+     * holds no row (e.g. a header), or -1 if the line is malformed
+     */
+    @FunctionalInterface
+    public interface LineParser {
+        int parse(String line, String[] fields);
+    }
+
+    /**
+     * Comma-separated fields, optionally double-quoted with "" for a quote.
+     * Quoted fields cannot span lines. A line whose first field is
+     * flight_number is taken as a header and skipped.
+     */
+    public static LineParser csv() {
+        return (line, fields) -> isCsvHeader(line) ? 0 : splitCsv(line, fields);
+    }
+
+    private static boolean isCsvHeader(String line) {
+        String first = FIELDS.get(0);
+        return line.startsWith(first) && (line.length() == first.length() || line.charAt(first.length()) == ',');
+    }
+
+    /**
+     * Fields of the given widths, in FIELDS order, with surrounding spaces
+     * stripped. Fields past the end of a short line are blank.
+     */
+    public static LineParser fixedWidth(int... widths) {
+        if (widths.length != FIELD_COUNT) {
+            throw new IllegalArgumentException("Expected " + FIELD_COUNT + " field widths, got " + widths.length);
+        }
+        int[] starts = new int[FIELD_COUNT + 1];
+        for (int i = 0; i < FIELD_COUNT; i++) {
+            if (widths[i] < 1) {
+                throw new IllegalArgumentException("Field widths must be positive");
+            }
+            starts[i + 1] = starts[i] + widths[i];
+        }
+        return (line, fields) -> {
+            for (int i = 0; i < FIELD_COUNT; i++) {
+                int start = Math.min(starts[i], line.length());
+                int end = Math.min(starts[i + 1], line.length());
+                fields[i] = line.substring(start, end).strip();
+            }
+            return line.length() > starts[FIELD_COUNT] ? -1 : FIELD_COUNT;
+        };
+    }
+
+    private static int splitCsv(String line, String[] fields) {
+        int count = 0;
+        int position = 0;
+        int length = line.length();
+        StringBuilder quoted = null;
+        for (;;) {
+            String value;
+            if (position < length && line.charAt(position) == '"') {
+                if (quoted == null) {
+                    quoted = new StringBuilder();
+                }
+                quoted.setLength(0);
+                int i = position + 1;
+                for (;;) {
+                    if (i >= length) {
+                        return -1;
+                    }
+                    char c = line.charAt(i++);
+                    if (c != '"') {
+                        quoted.append(c);
+                    } else if (i < length && line.charAt(i) == '"') {
+                        quoted.append('"');
+                        i++;
+                    } else {
+                        break;
+                    }
+                }
+                if (i < length && line.charAt(i) != ',') {
+                    return -1;
+                }
+                value = quoted.toString();
+                position = i;
+            } else {
+                int comma = line.indexOf(',', position);
+                int end = comma < 0 ? length : comma;
+                value = line.substring(position, end);
+                position = end;
+            }
+            if (count == fields.length) {
+                return -1;
+            }
+            fields[count++] = value;
+            if (position >= length) {
+                return count;
+            }
+            position++;
+        }
+    }
+
+    // Import
+    /**
+     * Reads the schedule to the end and inserts every valid row. Switches the
+     * connection to manual commit for the import and restores it afterwards.
+     */
+    public Result importFrom(Reader source, Connection connection) throws IOException, SQLException {
+        BufferedReader reader = source instanceof BufferedReader
+                ? (BufferedReader) source : new BufferedReader(source, 1 << 16);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now(clock));
+        Result result = new Result();
+        // Flight numbers batched but not yet committed, which the lookup
+        // cannot see yet
+        Set<String> batchedNumbers = new HashSet<>();
+        String[] fields = new String[FIELD_COUNT];
+        Row[] pending = new Row[rowsPerStatement];
+        for (int i = 0; i < pending.length; i++) {
+            pending[i] = new Row();
+        }
+        int pendingRows = 0;
+        int checkedRows = 0;
+        int batchedRows = 0;
+        long lineNumber = 0;
+
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (PreparedStatement multi = connection.prepareStatement(insertSql(rowsPerStatement));
+             PreparedStatement single = connection.prepareStatement(insertSql(1));
+             PreparedStatement existing = connection.prepareStatement(existingSql(rowsPerStatement))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                int count = parser.parse(line, fields);
+                if (count == 0) {
+                    continue;
+                }
+                String error = count < 0 || count > FIELD_COUNT
+                        ? "Expected at most " + FIELD_COUNT + " well-formed fields"
+                        : pending[pendingRows].load(fields, count);
+                if (error != null) {
+                    result.reject(lineNumber, error);
+                    continue;
+                }
+                pending[pendingRows].lineNumber = lineNumber;
+                if (++pendingRows == rowsPerStatement) {
+                    pendingRows = rejectDuplicates(pending, checkedRows, pendingRows, existing, batchedNumbers, result);
+                    checkedRows = pendingRows;
+                }
+                if (pendingRows == rowsPerStatement) {
+                    int parameter = 1;
+                    for (Row row : pending) {
+                        parameter = row.bind(multi, parameter, ids.nextId(connection), now);
+                    }
+                    multi.addBatch();
+                    pendingRows = 0;
+                    checkedRows = 0;
+                    batchedRows += rowsPerStatement;
+                    if (batchedRows >= commitRows) {
+                        commit(multi, connection, lineNumber);
+                        result.imported += batchedRows;
+                        batchedRows = 0;
+                        batchedNumbers.clear();
+                    }
+                }
+            }
+            pendingRows = rejectDuplicates(pending, checkedRows, pendingRows, existing, batchedNumbers, result);
+            for (int i = 0; i < pendingRows; i++) {
+                pending[i].bind(single, 1, ids.nextId(connection), now);
+                single.addBatch();
+            }
+            commit(multi, connection, lineNumber);
+            commit(single, connection, lineNumber);
+            result.imported += batchedRows + pendingRows;
+            return result;
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Rejects the pending rows from checked on whose flight number is already
+     * in the table or earlier in the file, moving the rest up behind the rows
+     * already checked. Returns how many pending rows remain.
+     */
+    private static int rejectDuplicates(Row[] pending, int checked, int pendingRows, PreparedStatement existing,
+                                        Set<String> batchedNumbers, Result result) throws SQLException {
+        if (checked == pendingRows) {
+            return pendingRows;
+        }
+        // Unused placeholders repeat the first unchecked number
+        for (int i = 0; i < pending.length; i++) {
+            existing.setString(i + 1, pending[checked + i < pendingRows ? checked + i : checked].flightNumber);
+        }
+        Set<String> taken = new HashSet<>();
+        try (ResultSet rows = existing.executeQuery()) {
+            while (rows.next()) {
+                taken.add(rows.getString(1));
+            }
+        }
+        int kept = checked;
+        for (int i = checked; i < pendingRows; i++) {
+            Row row = pending[i];
+            if (taken.contains(row.flightNumber)) {
+                result.reject(row.lineNumber, "Flight number " + row.flightNumber + " already exists");
+            } else if (!batchedNumbers.add(row.flightNumber)) {
+                result.reject(row.lineNumber, "Flight number " + row.flightNumber + " appears earlier in the file");
+            } else {
+                // Swap so every slot keeps a Row to reuse
+                pending[i] = pending[kept];
+                pending[kept++] = row;
+            }
+        }
+        return kept;
+    }
+
+    private static void commit(PreparedStatement statement, Connection connection, long lineNumber) throws SQLException {
+        try {
+            statement.executeBatch();
+            connection.commit();
+        } catch (SQLException e) {
+            throw new SQLException("Schedule import failed in the rows before line " + lineNumber, e);
+        }
+    }
+
+    private static String existingSql(int rows) {
+        return "SELECT flight_number FROM flights WHERE flight_number IN ("
+                + "?, ".repeat(rows - 1) + "?)";
+    }
+
+    private static String insertSql(int rows) {
+        StringBuilder sql = new StringBuilder("INSERT INTO flights (")
+                .append(String.join(", ", COLUMNS))
+                .append(", status, version) VALUES ");
+        String values = "(" + "?, ".repeat(COLUMNS.size()) + "'SCHEDULED', 0)";
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(values);
+        }
+        return sql.toString();
+    }
+
+    /**
+     * One parsed row, reused across lines
+     */
+    private static final class Row {
+        long lineNumber;
+        String flightNumber;
+        String airline;
+        String originAirport;
+        String originCity;
+        String destinationAirport;
+        String destinationCity;
+        LocalDateTime departureTime;
+        LocalDateTime arrivalTime;
+        String aircraftType;
+        final BigDecimal[] prices = new BigDecimal[TravelClass.COUNT];
+        final int[] seats = new int[TravelClass.COUNT];
+        String gate;
+        String terminal;
+        String notes;
+
+        /**
+         * Takes the fields and applies the Flight constraints. Returns the
+         * first violation's message, or null if the row is valid.
+         */
+        String load(String[] fields, int count) {
+            // Missing trailing fields are blank
+            for (int i = count; i < FIELD_COUNT; i++) {
+                fields[i] = null;
+            }
+            String error;
+            flightNumber = fields[0];
+            if ((error = FlightValidator.checkFlightNumber(flightNumber)) != null) return error;
+            airline = fields[1];
+            if ((error = FlightValidator.checkAirline(airline)) != null) return error;
+            originAirport = fields[2];
+            if ((error = FlightValidator.checkOriginAirport(originAirport)) != null) return error;
+            originCity = fields[3];
+            if ((error = FlightValidator.checkOriginCity(originCity)) != null) return error;
+            destinationAirport = fields[4];
+            if ((error = FlightValidator.checkDestinationAirport(destinationAirport)) != null) return error;
+            destinationCity = fields[5];
+            if ((error = FlightValidator.checkDestinationCity(destinationCity)) != null) return error;
+            if (isBlank(fields[6])) return "Departure time is required";
+            departureTime = parseTime(fields[6]);
+            if (departureTime == null) return "Invalid departure time: " + fields[6];
+            if (isBlank(fields[7])) return "Arrival time is required";
+            arrivalTime = parseTime(fields[7]);
+            if (arrivalTime == null) return "Invalid arrival time: " + fields[7];
+            if ((error = FlightValidator.checkSchedule(departureTime, arrivalTime)) != null) return error;
+            aircraftType = fields[8];
+            if ((error = FlightValidator.checkAircraftType(aircraftType)) != null) return error;
+
+            for (TravelClass cabin : CABINS) {
+                String price = fields[FIRST_PRICE_FIELD + cabin.ordinal()];
+                try {
+                    prices[cabin.ordinal()] = isBlank(price) ? null : new BigDecimal(price.strip());
+                } catch (NumberFormatException e) {
+                    return "Invalid " + cabin.getCode() + " price: " + price;
+                }
+                if ((error = FlightValidator.checkPrice(cabin, prices[cabin.ordinal()])) != null) return error;
+            }
+            for (TravelClass cabin : CABINS) {
+                String seatCount = fields[FIRST_SEATS_FIELD + cabin.ordinal()];
+                int capacity;
+                try {
+                    capacity = isBlank(seatCount) ? 0 : Integer.parseInt(seatCount.strip());
+                } catch (NumberFormatException e) {
+                    return "Invalid " + cabin.getCode() + " seat count: " + seatCount;
+                }
+                // Available starts at capacity
+                if ((error = FlightValidator.checkSeats(cabin, capacity, capacity)) != null) return error;
+                seats[cabin.ordinal()] = capacity;
+            }
+
+            gate = blankToNull(fields[17]);
+            if ((error = FlightValidator.checkGate(gate)) != null) return error;
+            terminal = blankToNull(fields[18]);
+            if ((error = FlightValidator.checkTerminal(terminal)) != null) return error;
+            notes = blankToNull(fields[19]);
+            if ((error = FlightValidator.checkNotes(notes)) != null) return error;
+            return null;
+        }
+
+        /**
+         * Binds the row from the parameter index on; returns the next index
+         */
+        int bind(PreparedStatement statement, int parameter, long id, Timestamp now) throws SQLException {
+            statement.setLong(parameter++, id);
+            statement.setString(parameter++, flightNumber);
+            statement.setString(parameter++, airline);
+            statement.setString(parameter++, originAirport);
+            statement.setString(parameter++, originCity);
+            statement.setString(parameter++, destinationAirport);
+            statement.setString(parameter++, destinationCity);
+            statement.setTimestamp(parameter++, Timestamp.valueOf(departureTime));
+            statement.setTimestamp(parameter++, Timestamp.valueOf(arrivalTime));
+            statement.setString(parameter++, aircraftType);
+            for (BigDecimal price : prices) {
+                if (price == null) {
+                    statement.setNull(parameter++, Types.DECIMAL);
+                } else {
+                    statement.setBigDecimal(parameter++, price);
+                }
+            }
+            for (int count : seats) {
+                statement.setInt(parameter++, count);
+            }
+            // Available starts at capacity
+            for (int count : seats) {
+                statement.setInt(parameter++, count);
+            }
+            setNullable(statement, parameter++, gate);
+            setNullable(statement, parameter++, terminal);
+            setNullable(statement, parameter++, notes);
+            statement.setTimestamp(parameter++, now);
+            statement.setTimestamp(parameter++, now);
+            return parameter;
+        }
+
+        private static void setNullable(PreparedStatement statement, int parameter, String value) throws SQLException {
+            if (value == null) {
+                statement.setNull(parameter, Types.VARCHAR);
+            } else {
+                statement.setString(parameter, value);
+            }
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static String blankToNull(String value) {
+        return isBlank(value) ? null : value;
+    }
+
+    /**
+     * Parses yyyy-MM-dd HH:mm[:ss], with a space or 'T' between date and
+     * time. Returns null if the text is not a valid date-time.
+     */
+    static LocalDateTime parseTime(String text) {
+        String value = text.strip();
+        int length = value.length();
+        if ((length != 16 && length != 19)
+                || value.charAt(4) != '-' || value.charAt(7) != '-'
+                || (value.charAt(10) != ' ' && value.charAt(10) != 'T')
+                || value.charAt(13) != ':' || (length == 19 && value.charAt(16) != ':')) {
+            return null;
+        }
+        int year = digits(value, 0, 4);
+        int month = digits(value, 5, 2);
+        int day = digits(value, 8, 2);
+        int hour = digits(value, 11, 2);
+        int minute = digits(value, 14, 2);
+        int second = length == 19 ? digits(value, 17, 2) : 0;
+        if ((year | month | day | hour | minute | second) < 0) {
+            return null;
+        }
+        try {
+            return LocalDateTime.of(year, month, day, hour, minute, second);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    private static int digits(String value, int start, int count) {
+        int result = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            result = result * 10 + digit;
+        }
+        return result;
+    }
+
+    /**
+     * Rows imported and rejected, with the first rejections' reasons
+     */
+    public static final class Result {
+        private long imported;
+        private long rejected;
+        private final List<String> errors = new ArrayList<>();
+
+        public long getImported() { return imported; }
+        public long getRejected() { return rejected; }
+
+        /**
+         * "line N: reason" for the first 100 rejected rows
+         */
+        public List<String> getErrors() { return Collections.unmodifiableList(errors); }
+
+        private void reject(long lineNumber, String reason) {
+            rejected++;
+            if (errors.size() < MAX_ERRORS) {
+                errors.add("line " + lineNumber + ": " + reason);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "Result{imported=" + imported + ", rejected=" + rejected + '}';
+        }
+    }
+}
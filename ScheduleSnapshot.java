@@ -0,0 +1,275 @@
+package com.smartwings.schedule;
+
+import com.smartwings.model.CodeDictionary;
+import com.smartwings.model.Flight;
+import com.smartwings.repository.FlightChangeRepository;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Schedule Snapshot
+ * Versioned binary image of a ColumnarSchedule so a node can start serving
+ * without reloading the flights table. The file holds a header, the code
+ * dictionaries and every column at full capacity; opening it memory-maps the
+ * columns copy-on-write, so boot cost is independent of the schedule size
+ * apart from rebuilding the id-to-row table. The node then catches up with
+ * the flights changed since the snapshot's (updatedAt, id) watermark.
+ *
+ * Layout: magic, format version, byte order, capacity, size, watermark
+ * updatedAt (epoch micros) and id, then six dictionaries (airports, cities,
+ * airlines, aircraft types, gates, terminals) as counts of length-prefixed
+ * UTF-8 codes in id order, then the columns, each starting on an 8-byte
+ * boundary. Deleted flights are not captured by the catch-up.
+ */
+public final class ScheduleSnapshot {
+
+    public static final int MAGIC = 0x53575353;
+    public static final int FORMAT_VERSION = 1;
+
+    private static final int HEADER_BYTES = 4 + 4 + 4 + 4 + 4 + 8 + 8;
+    private static final long NO_WATERMARK = Long.MIN_VALUE;
+
+    private final ColumnarSchedule schedule;
+    private long watermarkMicros;
+    private long watermarkId;
+
+    private ScheduleSnapshot(ColumnarSchedule schedule, long watermarkMicros, long watermarkId) {
+        this.schedule = schedule;
+        this.watermarkMicros = watermarkMicros;
+        this.watermarkId = watermarkId;
+    }
+
+    public ColumnarSchedule getSchedule() { return schedule; }
+
+    /**
+     * updatedAt of the newest change applied, or null if there is none
+     */
+    public LocalDateTime getWatermark() { return ColumnarSchedule.fromMicros(watermarkMicros); }
+
+    public long getWatermarkId() { return watermarkId; }
+
+    // Writing
+    /**
+     * Writes the store to the path, replacing it atomically. Writers to the
+     * store wait until the columns have been written.
+     */
+    public static void write(ColumnarSchedule schedule, Path path) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        synchronized (schedule) {
+            int size = schedule.size();
+            long watermarkMicros = NO_WATERMARK;
+            long watermarkId = 0;
+            for (int row = 0; row < size; row++) {
+                long micros = schedule.updatedAtMicros(row);
+                long id = schedule.id(row);
+                if (micros > watermarkMicros || (micros == watermarkMicros && id > watermarkId)) {
+                    watermarkMicros = micros;
+                    watermarkId = id;
+                }
+            }
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.BIG_ENDIAN);
+                header.putInt(MAGIC).putInt(FORMAT_VERSION)
+                        .putInt(ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN ? 1 : 0)
+                        .putInt(schedule.capacity()).putInt(size)
+                        .putLong(watermarkMicros).putLong(watermarkId);
+                writeFully(channel, header.flip());
+                for (CodeDictionary dictionary : dictionaries(schedule)) {
+                    writeFully(channel, encode(dictionary));
+                }
+                long position = align(channel.position());
+                ByteBuffer[] columns = schedule.columns();
+                for (int i = 0; i < columns.length; i++) {
+                    int width = ColumnarSchedule.COLUMN_WIDTHS[i];
+                    ByteBuffer used = columns[i].duplicate();
+                    used.position(0).limit(size * width);
+                    channel.position(position);
+                    writeFully(channel, used);
+                    position = align(position + (long) schedule.capacity() * width);
+                }
+                // Extend the file over the unused tail of the last column; a
+                // full column already ends there and must not be overwritten
+                if (channel.size() < position) {
+                    channel.write(ByteBuffer.allocate(1), position - 1);
+                }
+                channel.force(true);
+            }
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static CodeDictionary[] dictionaries(ColumnarSchedule schedule) {
+        return new CodeDictionary[] {
+                CodeDictionary.AIRPORTS, CodeDictionary.CITIES, CodeDictionary.AIRLINES,
+                schedule.aircraftTypeCodes(), schedule.gateCodes(), schedule.terminalCodes()
+        };
+    }
+
+    private static ByteBuffer encode(CodeDictionary dictionary) {
+        int count = dictionary.size();
+        byte[][] codes = new byte[count][];
+        int bytes = 4;
+        for (int id = 0; id < count; id++) {
+            codes[id] = dictionary.decode(id).getBytes(StandardCharsets.UTF_8);
+            bytes += 4 + codes[id].length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(bytes).order(ByteOrder.BIG_ENDIAN);
+        buffer.putInt(count);
+        for (byte[] code : codes) {
+            buffer.putInt(code.length).put(code);
+        }
+        return buffer.flip();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static long align(long position) {
+        return (position + 7) & ~7L;
+    }
+
+    // Opening
+    /**
+     * Maps a snapshot into a new store. Updates to the store stay in memory
+     * and never reach the file.
+     */
+    public static ScheduleSnapshot open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // Header and dictionaries sit well inside the first mappable window
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    Math.min(channel.size(), Integer.MAX_VALUE)).order(ByteOrder.BIG_ENDIAN);
+            if (header.getInt() != MAGIC) {
+                throw new IOException(path + " is not a schedule snapshot");
+            }
+            int version = header.getInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported schedule snapshot version " + version + " in " + path);
+            }
+            ByteOrder order = header.getInt() == 1 ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+            if (order != ByteOrder.nativeOrder()) {
+                throw new IOException("Schedule snapshot " + path + " was written with " + order + " byte order");
+            }
+            int capacity = header.getInt();
+            int size = header.getInt();
+            long watermarkMicros = header.getLong();
+            long watermarkId = header.getLong();
+
+            int[] airports = intern(CodeDictionary.AIRPORTS, header);
+            int[] cities = intern(CodeDictionary.CITIES, header);
+            int[] airlines = intern(CodeDictionary.AIRLINES, header);
+            CodeDictionary aircraftTypes = new CodeDictionary();
+            CodeDictionary gates = new CodeDictionary();
+            CodeDictionary terminals = new CodeDictionary();
+            intern(aircraftTypes, header);
+            intern(gates, header);
+            intern(terminals, header);
+
+            long position = align(header.position());
+            ByteBuffer[] columns = new ByteBuffer[ColumnarSchedule.COLUMN_WIDTHS.length];
+            for (int i = 0; i < columns.length; i++) {
+                long length = (long) capacity * ColumnarSchedule.COLUMN_WIDTHS[i];
+                MappedByteBuffer column = channel.map(FileChannel.MapMode.PRIVATE, position, length);
+                columns[i] = column.order(ByteOrder.nativeOrder());
+                position = align(position + length);
+            }
+            // Ids of the process-wide dictionaries may differ from the ones
+            // the snapshot was written with if codes were seen before boot
+            remap(columns[3], size, airlines);
+            remap(columns[4], size, airports);
+            remap(columns[5], size, cities);
+            remap(columns[6], size, airports);
+            remap(columns[7], size, cities);
+
+            ColumnarSchedule schedule = new ColumnarSchedule(capacity, size, columns, aircraftTypes, gates, terminals);
+            return new ScheduleSnapshot(schedule, watermarkMicros, watermarkId);
+        }
+    }
+
+    /**
+     * Encodes the snapshot's codes into the dictionary in id order and
+     * returns the id each snapshot id now has, or null if they all match
+     */
+    private static int[] intern(CodeDictionary dictionary, ByteBuffer buffer) {
+        int count = buffer.getInt();
+        int[] ids = new int[count];
+        boolean identity = true;
+        for (int id = 0; id < count; id++) {
+            byte[] code = new byte[buffer.getInt()];
+            buffer.get(code);
+            ids[id] = dictionary.encode(new String(code, StandardCharsets.UTF_8));
+            identity &= ids[id] == id;
+        }
+        return identity ? null : ids;
+    }
+
+    private static void remap(ByteBuffer column, int size, int[] ids) {
+        if (ids == null) {
+            return;
+        }
+        for (int row = 0; row < size; row++) {
+            int id = column.getInt(row * Integer.BYTES);
+            if (id != CodeDictionary.NONE) {
+                column.putInt(row * Integer.BYTES, ids[id]);
+            }
+        }
+    }
+
+    // Catch-up
+    /**
+     * Applies the flights changed since the watermark, a page of batchSize at
+     * a time, until a page comes back short. Reading starts commitLag before
+     * the watermark, as FlightChangeFeed does, so rows committed after the
+     * snapshot with an earlier updatedAt are not missed; a flight whose
+     * stored version is already at least as new is skipped. Returns the
+     * number applied.
+     *
+     * Pages are read as entities and the persistence context is cleared
+     * after each one, so a long catch-up does not accumulate them.
+     */
+    public int catchUp(EntityManager entityManager, int batchSize, Duration commitLag) {
+        FlightChangeRepository changes = new FlightChangeRepository(entityManager);
+        LocalDateTime watermark = getWatermark();
+        LocalDateTime cursor = watermark == null ? null : watermark.minus(commitLag);
+        long cursorId = 0;
+        int applied = 0;
+        for (;;) {
+            List<Flight> page = changes.findChangedSince(cursor, cursorId, batchSize);
+            for (Flight flight : page) {
+                int row = schedule.rowOf(flight.getId());
+                if (row < 0 || flight.getVersion() == null || schedule.version(row) < flight.getVersion()) {
+                    schedule.put(flight);
+                    applied++;
+                }
+                long micros = ColumnarSchedule.epochMicros(flight.getUpdatedAt());
+                if (micros > watermarkMicros || (micros == watermarkMicros && flight.getId() > watermarkId)) {
+                    watermarkMicros = micros;
+                    watermarkId = flight.getId();
+                }
+            }
+            entityManager.clear();
+            if (page.size() < batchSize) {
+                return applied;
+            }
+            Flight last = page.get(page.size() - 1);
+            cursor = last.getUpdatedAt();
+            cursorId = last.getId();
+        }
+    }
+}
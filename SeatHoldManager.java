@@ -0,0 +1,295 @@
+package com.smartwings.inventory;
+
+import com.smartwings.model.TravelClass;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Seat Hold Manager
+ * Time-boxed seat holds taken between flight selection and payment.
+ * Seats are taken from the SeatInventory when a hold is placed and given back
+ * when it expires or is cancelled; confirming a hold keeps them.
+ *
+ * Expiry is driven by a hierarchical timing wheel advanced from a single
+ * ticker, so placing and expiring a hold is O(1) and no per-hold task exists.
+ * Hold state lives in preallocated parallel arrays indexed by slot; the wheel
+ * buckets are intrusive doubly linked lists threaded through those arrays,
+ * so steady-state operation allocates nothing.
+ *
+ * A hold that ends after its flight was unregistered from the inventory, for
+ * example once it departed or was cancelled, is still freed; its seats have
+ * no counter to go back to and are counted in getOrphanedReleases().
+ */
+public class SeatHoldManager {
+
+    public static final long NO_HOLD = -1L;
+
+    private static final int LEVELS = 4;
+    private static final int BUCKET_BITS = 6;
+    private static final int BUCKETS = 1 << BUCKET_BITS;
+    private static final int BUCKET_MASK = BUCKETS - 1;
+    private static final long MAX_SPAN = 1L << (LEVELS * BUCKET_BITS);
+
+    private static final int NIL = -1;
+    private static final byte FREE = -1;
+
+    private final SeatInventory inventory;
+    private final long tickMillis;
+    private long currentTick;
+
+    // Hold slots
+    private final long[] flightIds;
+    private final long[] deadlines;
+    private final int[] seats;
+    private final byte[] cabins;
+    private final int[] generations;
+    private final int[] next;
+    private final int[] prev;
+    private final int[] bucketOf;
+    private int freeHead;
+    private int openHolds;
+    private final LongAdder orphanedReleases = new LongAdder();
+
+    // Wheel
+    private final int[] heads = new int[LEVELS * BUCKETS];
+
+    public SeatHoldManager(SeatInventory inventory, int maxHolds, long tickMillis, long nowMillis) {
+        if (maxHolds < 1 || tickMillis < 1) {
+            throw new IllegalArgumentException("maxHolds and tickMillis must be positive");
+        }
+        this.inventory = inventory;
+        this.tickMillis = tickMillis;
+        this.currentTick = nowMillis / tickMillis;
+        this.flightIds = new long[maxHolds];
+        this.deadlines = new long[maxHolds];
+        this.seats = new int[maxHolds];
+        this.cabins = new byte[maxHolds];
+        this.generations = new int[maxHolds];
+        this.next = new int[maxHolds];
+        this.prev = new int[maxHolds];
+        this.bucketOf = new int[maxHolds];
+
+        Arrays.fill(heads, NIL);
+        Arrays.fill(cabins, FREE);
+        for (int slot = 0; slot < maxHolds; slot++) {
+            next[slot] = slot + 1 < maxHolds ? slot + 1 : NIL;
+        }
+        freeHead = 0;
+    }
+
+    // Business methods
+    /**
+     * Takes the seats from inventory and holds them until nowMillis + ttlMillis.
+     * Returns NO_HOLD when the seats are not available or the hold table is full.
+     */
+    public long hold(Long flightId, TravelClass travelClass, int seatCount, long ttlMillis, long nowMillis) {
+        if (!inventory.reserve(flightId, travelClass, seatCount)) {
+            return NO_HOLD;
+        }
+        long holdId = place(flightId, travelClass.ordinal(), seatCount, toTick(nowMillis + ttlMillis));
+        if (holdId == NO_HOLD) {
+            inventory.release(flightId, travelClass, seatCount);
+        }
+        return holdId;
+    }
+
+    /**
+     * Converts the hold into a sale. Returns false if it already expired or was cancelled.
+     */
+    public synchronized boolean confirm(long holdId) {
+        int slot = slotOf(holdId);
+        if (slot == NIL) {
+            return false;
+        }
+        unlink(slot);
+        free(slot);
+        return true;
+    }
+
+    /**
+     * Gives the held seats back to inventory. Returns false if the hold is no longer open.
+     */
+    public synchronized boolean cancel(long holdId) {
+        int slot = slotOf(holdId);
+        if (slot == NIL) {
+            return false;
+        }
+        unlink(slot);
+        releaseAndFree(slot);
+        return true;
+    }
+
+    /**
+     * Pushes the expiry of an open hold to nowMillis + ttlMillis.
+     */
+    public synchronized boolean extend(long holdId, long ttlMillis, long nowMillis) {
+        int slot = slotOf(holdId);
+        if (slot == NIL) {
+            return false;
+        }
+        unlink(slot);
+        deadlines[slot] = Math.max(toTick(nowMillis + ttlMillis), currentTick + 1);
+        link(slot);
+        return true;
+    }
+
+    /**
+     * Advances the wheel to nowMillis, expiring every hold whose deadline has
+     * passed. Intended to be called from a single scheduled ticker.
+     *
+     * @return the number of holds expired
+     */
+    public synchronized int advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        int expired = 0;
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            expired += expireBucket((int) (currentTick & BUCKET_MASK));
+        }
+        return expired;
+    }
+
+    public synchronized int getOpenHolds() {
+        return openHolds;
+    }
+
+    /**
+     * Expired or cancelled holds whose flight was no longer in the inventory
+     */
+    public long getOrphanedReleases() {
+        return orphanedReleases.sum();
+    }
+
+    public int getCapacity() {
+        return cabins.length;
+    }
+
+    // Slot management
+    private synchronized long place(long flightId, int cabin, int seatCount, long deadlineTick) {
+        if (freeHead == NIL) {
+            return NO_HOLD;
+        }
+        int slot = freeHead;
+        freeHead = next[slot];
+
+        flightIds[slot] = flightId;
+        cabins[slot] = (byte) cabin;
+        seats[slot] = seatCount;
+        deadlines[slot] = Math.max(deadlineTick, currentTick + 1);
+        link(slot);
+        openHolds++;
+        return ((long) generations[slot] << 32) | slot;
+    }
+
+    private int slotOf(long holdId) {
+        int slot = (int) holdId;
+        int generation = (int) (holdId >>> 32);
+        if (holdId < 0 || slot >= cabins.length || cabins[slot] == FREE || generations[slot] != generation) {
+            return NIL;
+        }
+        return slot;
+    }
+
+    // Frees the slot before releasing: the slot is already off its bucket,
+    // so a release that throws must not leave it, or the rest of an expiring
+    // chain, unreachable
+    private void releaseAndFree(int slot) {
+        Long flightId = flightIds[slot];
+        TravelClass travelClass = TravelClass.fromIndex(cabins[slot]);
+        int seatCount = seats[slot];
+        free(slot);
+        if (!inventory.isRegistered(flightId)) {
+            orphanedReleases.increment();
+            return;
+        }
+        try {
+            inventory.release(flightId, travelClass, seatCount);
+        } catch (IllegalArgumentException e) {
+            // Unregistered since the check
+            orphanedReleases.increment();
+        }
+    }
+
+    private void free(int slot) {
+        cabins[slot] = FREE;
+        generations[slot]++;
+        next[slot] = freeHead;
+        freeHead = slot;
+        openHolds--;
+    }
+
+    // Timing wheel
+    private long toTick(long millis) {
+        return (millis + tickMillis - 1) / tickMillis;
+    }
+
+    private void link(int slot) {
+        long delta = Math.min(deadlines[slot] - currentTick, MAX_SPAN - 1);
+        long placement = currentTick + delta;
+        int level = 0;
+        while (delta >= (1L << ((level + 1) * BUCKET_BITS))) {
+            level++;
+        }
+        int bucket = level * BUCKETS + (int) ((placement >>> (level * BUCKET_BITS)) & BUCKET_MASK);
+
+        int head = heads[bucket];
+        next[slot] = head;
+        prev[slot] = NIL;
+        if (head != NIL) {
+            prev[head] = slot;
+        }
+        heads[bucket] = slot;
+        bucketOf[slot] = bucket;
+    }
+
+    private void unlink(int slot) {
+        int before = prev[slot];
+        int after = next[slot];
+        if (before == NIL) {
+            heads[bucketOf[slot]] = after;
+        } else {
+            next[before] = after;
+        }
+        if (after != NIL) {
+            prev[after] = before;
+        }
+    }
+
+    private void cascade() {
+        // Find the highest level whose bucket boundary was crossed, then move
+        // buckets down from the top so entries land before their bucket fires
+        int top = 0;
+        while (top + 1 < LEVELS && (currentTick & ((1L << ((top + 1) * BUCKET_BITS)) - 1)) == 0) {
+            top++;
+        }
+        for (int level = top; level > 0; level--) {
+            int bucket = level * BUCKETS + (int) ((currentTick >>> (level * BUCKET_BITS)) & BUCKET_MASK);
+            int slot = heads[bucket];
+            heads[bucket] = NIL;
+            while (slot != NIL) {
+                int following = next[slot];
+                link(slot);
+                slot = following;
+            }
+        }
+    }
+
+    private int expireBucket(int bucket) {
+        int slot = heads[bucket];
+        heads[bucket] = NIL;
+        int expired = 0;
+        while (slot != NIL) {
+            int following = next[slot];
+            if (deadlines[slot] <= currentTick) {
+                releaseAndFree(slot);
+                expired++;
+            } else {
+                link(slot);
+            }
+            slot = following;
+        }
+        return expired;
+    }
+}
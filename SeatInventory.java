@@ -0,0 +1,144 @@
+package com.smartwings.inventory;
+
+import com.smartwings.model.Flight;
+import com.smartwings.model.TravelClass;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Consumer;
+
+/**
+ * Seat Inventory
+ * In-memory, lock-free seat counters for registered flights, keyed by flight id.
+ * Counters are authoritative while a flight is registered; the Flight entity is
+ * brought up to date asynchronously through the write-back callback.
+ */
+public class SeatInventory {
+
+    // Cabin slots are spaced a cache line apart so that contention on one
+    // cabin does not invalidate the counters of the others
+    private static final int SLOT_STRIDE = 16;
+
+    private final ConcurrentHashMap<Long, FlightSeats> flights = new ConcurrentHashMap<>();
+    private final Executor writeBackExecutor;
+    private final Consumer<Flight> writeBack;
+
+    public SeatInventory(Executor writeBackExecutor, Consumer<Flight> writeBack) {
+        this.writeBackExecutor = writeBackExecutor;
+        this.writeBack = writeBack;
+    }
+
+    // Registration
+    public void register(Flight flight) {
+        if (flight.getId() == null) {
+            throw new IllegalArgumentException("Flight must be persisted before it can be registered");
+        }
+        flights.put(flight.getId(), new FlightSeats(flight));
+    }
+
+    public void unregister(Long flightId) {
+        FlightSeats seats = flights.remove(flightId);
+        if (seats != null) {
+            seats.copyToEntity();
+        }
+    }
+
+    public boolean isRegistered(Long flightId) {
+        return flights.containsKey(flightId);
+    }
+
+    // Business methods
+    public boolean reserve(Long flightId, TravelClass travelClass, int seats) {
+        FlightSeats flight = lookup(flightId);
+        int cabin = travelClass.ordinal();
+        if (seats <= 0) {
+            return false;
+        }
+        int slot = cabin * SLOT_STRIDE;
+        AtomicIntegerArray available = flight.available;
+        for (;;) {
+            int current = available.get(slot);
+            if (current < seats) {
+                return false;
+            }
+            if (available.compareAndSet(slot, current, current - seats)) {
+                scheduleWriteBack(flight);
+                return true;
+            }
+        }
+    }
+
+    public boolean release(Long flightId, TravelClass travelClass, int seats) {
+        FlightSeats flight = lookup(flightId);
+        int cabin = travelClass.ordinal();
+        if (seats <= 0) {
+            return false;
+        }
+        int slot = cabin * SLOT_STRIDE;
+        int capacity = flight.capacity[cabin];
+        AtomicIntegerArray available = flight.available;
+        for (;;) {
+            int current = available.get(slot);
+            if (current + seats > capacity) {
+                return false;
+            }
+            if (available.compareAndSet(slot, current, current + seats)) {
+                scheduleWriteBack(flight);
+                return true;
+            }
+        }
+    }
+
+    public int available(Long flightId, TravelClass travelClass) {
+        return lookup(flightId).available.get(travelClass.ordinal() * SLOT_STRIDE);
+    }
+
+    // Write-back
+    private void scheduleWriteBack(FlightSeats flight) {
+        // At most one write-back is queued per flight; it publishes whatever
+        // the counters hold when it runs, so bursts collapse into one flush
+        if (flight.writeBackPending.compareAndSet(false, true)) {
+            writeBackExecutor.execute(() -> {
+                flight.writeBackPending.set(false);
+                flight.copyToEntity();
+                writeBack.accept(flight.entity);
+            });
+        }
+    }
+
+    private FlightSeats lookup(Long flightId) {
+        FlightSeats flight = flights.get(flightId);
+        if (flight == null) {
+            throw new IllegalArgumentException("Flight " + flightId + " is not registered with the seat inventory");
+        }
+        return flight;
+    }
+
+    /**
+     * Per-flight counters and the entity they are written back to
+     */
+    private static final class FlightSeats {
+        final Flight entity;
+        final int[] capacity = new int[TravelClass.COUNT];
+        final AtomicIntegerArray available = new AtomicIntegerArray(TravelClass.COUNT * SLOT_STRIDE);
+        final AtomicBoolean writeBackPending = new AtomicBoolean();
+
+        FlightSeats(Flight entity) {
+            this.entity = entity;
+            for (TravelClass travelClass : TravelClass.values()) {
+                capacity[travelClass.ordinal()] = entity.getSeats(travelClass);
+                available.set(travelClass.ordinal() * SLOT_STRIDE, entity.getAvailable(travelClass));
+            }
+        }
+
+        void copyToEntity() {
+            synchronized (entity) {
+                for (TravelClass travelClass : TravelClass.values()) {
+                    entity.setAvailable(travelClass, available.get(travelClass.ordinal() * SLOT_STRIDE));
+                }
+            }
+        }
+    }
+}
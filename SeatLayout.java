@@ -0,0 +1,154 @@
+package com.smartwings.model;
+
+/**
+ * Seat Layout
+ * Immutable seat plan of an aircraft type: for each cabin, its rows and the seat
+ * letters of a row with aisles marked by spaces (e.g. "ABC DEF"). Seats are
+ * numbered front to back, left to right; a seat's number is its bit in a
+ * SeatMap. Row masks for windows and seat blocks are precomputed here so
+ * seat maps of every flight can share them. Cabins hold no numbering of
+ * their own, so one Cabin can be reused across layouts.
+ */
+public final class SeatLayout {
+
+    private final Cabin[] cabins = new Cabin[TravelClass.COUNT];
+    private final int[] firstSeat = new int[TravelClass.COUNT];
+    private final int seatCount;
+
+    public SeatLayout(Cabin... cabinLayouts) {
+        int next = 0;
+        for (Cabin cabin : cabinLayouts) {
+            if (cabins[cabin.travelClass.ordinal()] != null) {
+                throw new IllegalArgumentException("Cabin " + cabin.travelClass + " is laid out twice");
+            }
+            firstSeat[cabin.travelClass.ordinal()] = next;
+            next += cabin.rows * cabin.seatsPerRow;
+            cabins[cabin.travelClass.ordinal()] = cabin;
+        }
+        this.seatCount = next;
+    }
+
+    public int getSeatCount() { return seatCount; }
+
+    /**
+     * Cabin layout, or null if the aircraft has no such cabin
+     */
+    public Cabin cabin(TravelClass travelClass) {
+        return cabins[travelClass.ordinal()];
+    }
+
+    /**
+     * Number of the cabin's first seat, or -1 if the aircraft has no such cabin
+     */
+    public int firstSeat(TravelClass travelClass) {
+        return cabins[travelClass.ordinal()] == null ? -1 : firstSeat[travelClass.ordinal()];
+    }
+
+    public int seats(TravelClass travelClass) {
+        Cabin cabin = cabins[travelClass.ordinal()];
+        return cabin == null ? 0 : cabin.rows * cabin.seatsPerRow;
+    }
+
+    /**
+     * Seat label such as "12A" for a seat number
+     */
+    public String label(int seat) {
+        for (Cabin cabin : cabins) {
+            if (cabin == null) {
+                continue;
+            }
+            int first = firstSeat[cabin.travelClass.ordinal()];
+            if (seat >= first && seat < first + cabin.rows * cabin.seatsPerRow) {
+                int offset = seat - first;
+                return (cabin.firstRow + offset / cabin.seatsPerRow) + String.valueOf(cabin.letters[offset % cabin.seatsPerRow]);
+            }
+        }
+        throw new IllegalArgumentException("No seat " + seat);
+    }
+
+    /**
+     * Seat number for a label such as "12A", or -1 if the aircraft has no such seat
+     */
+    public int seatOf(String label) {
+        int split = label.length() - 1;
+        if (split < 1) {
+            return -1;
+        }
+        int row;
+        try {
+            row = Integer.parseInt(label.substring(0, split));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+        char letter = label.charAt(split);
+        for (Cabin cabin : cabins) {
+            if (cabin != null && row >= cabin.firstRow && row < cabin.firstRow + cabin.rows) {
+                for (int i = 0; i < cabin.seatsPerRow; i++) {
+                    if (cabin.letters[i] == letter) {
+                        return firstSeat[cabin.travelClass.ordinal()] + (row - cabin.firstRow) * cabin.seatsPerRow + i;
+                    }
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Layout of one cabin
+     */
+    public static final class Cabin {
+        final TravelClass travelClass;
+        final int firstRow;
+        final int rows;
+        final int seatsPerRow;
+        final char[] letters;
+        final long rowMask;
+        final long windowMask;
+        final int[] blockOf;
+
+        public Cabin(TravelClass travelClass, int firstRow, int rows, String rowPattern) {
+            String letters = rowPattern.replace(" ", "");
+            if (letters.isEmpty() || letters.length() > 16) {
+                throw new IllegalArgumentException("A row must have between 1 and 16 seats");
+            }
+            this.travelClass = travelClass;
+            this.firstRow = firstRow;
+            this.rows = rows;
+            this.seatsPerRow = letters.length();
+            this.letters = letters.toCharArray();
+            this.rowMask = (1L << seatsPerRow) - 1;
+            this.windowMask = 1L | (1L << (seatsPerRow - 1));
+            this.blockOf = new int[seatsPerRow];
+            int block = 0;
+            int seat = 0;
+            for (int i = 0; i < rowPattern.length(); i++) {
+                if (rowPattern.charAt(i) == ' ') {
+                    block++;
+                } else {
+                    blockOf[seat++] = block;
+                }
+            }
+        }
+
+        public TravelClass getTravelClass() { return travelClass; }
+        public int getFirstRow() { return firstRow; }
+        public int getRows() { return rows; }
+        public int getSeatsPerRow() { return seatsPerRow; }
+        public int getSeatCount() { return rows * seatsPerRow; }
+        public long getRowMask() { return rowMask; }
+        public long getWindowMask() { return windowMask; }
+
+        /**
+         * Row positions where n adjacent seats start without crossing an aisle
+         */
+        public long adjacentStarts(int n) {
+            long starts = 0;
+            for (int i = 0; i + n <= seatsPerRow; i++) {
+                if (blockOf[i] == blockOf[i + n - 1]) {
+                    starts |= 1L << i;
+                }
+            }
+            return starts;
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.smartwings.inventory;
+
+import com.smartwings.model.AircraftLayout;
+import com.smartwings.model.Flight;
+import com.smartwings.model.SeatLayout;
+import com.smartwings.model.TravelClass;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Seat Map
+ * Per-seat occupancy of one flight as a bitset, one bit per seat of the
+ * aircraft's SeatLayout (a 300-seat aircraft takes five longs). Seats are
+ * assigned and vacated lock-free with compare-and-set on the word that holds
+ * the seat.
+ *
+ * Assigning a seat reserves it from the SeatInventory counters first, so the
+ * occupied seats of a cabin never exceed the seats sold; seats sold without a
+ * seat assignment simply have no bit yet.
+ */
+public class SeatMap {
+
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final SeatLayout layout;
+    private final SeatInventory inventory;
+    private final Long flightId;
+    private final long[] occupied;
+
+    /**
+     * Seat map laid out from the flight's aircraft type
+     */
+    public SeatMap(Flight flight, SeatInventory inventory) {
+        this(seatLayoutOf(flight), flight, inventory);
+    }
+
+    public SeatMap(SeatLayout layout, Flight flight, SeatInventory inventory) {
+        for (TravelClass travelClass : TravelClass.values()) {
+            if (layout.seats(travelClass) != flight.getSeats(travelClass)) {
+                throw new IllegalArgumentException("Seat layout has " + layout.seats(travelClass) + " "
+                        + travelClass.getCode() + " seats but flight " + flight.getFlightNumber()
+                        + " has " + flight.getSeats(travelClass));
+            }
+        }
+        this.layout = layout;
+        this.inventory = inventory;
+        this.flightId = flight.getId();
+        this.occupied = new long[(layout.getSeatCount() + 63) >>> 6];
+    }
+
+    public SeatLayout getLayout() { return layout; }
+
+    // Assignment
+    /**
+     * Sells and assigns one seat. Fails if the seat is taken or the cabin is sold out.
+     */
+    public boolean assign(TravelClass travelClass, int seat) {
+        checkSeat(travelClass, seat);
+        if (!inventory.reserve(flightId, travelClass, 1)) {
+            return false;
+        }
+        if (!setBit(seat)) {
+            inventory.release(flightId, travelClass, 1);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Sells and assigns a group of seats, all or none
+     */
+    public boolean assign(TravelClass travelClass, int... seats) {
+        for (int seat : seats) {
+            checkSeat(travelClass, seat);
+        }
+        if (!inventory.reserve(flightId, travelClass, seats.length)) {
+            return false;
+        }
+        for (int i = 0; i < seats.length; i++) {
+            if (!setBit(seats[i])) {
+                while (--i >= 0) {
+                    clearBit(seats[i]);
+                }
+                inventory.release(flightId, travelClass, seats.length);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Assigns a seat that has already been taken off the counters, e.g. by a
+     * confirmed seat hold
+     */
+    public boolean assignReserved(TravelClass travelClass, int seat) {
+        checkSeat(travelClass, seat);
+        return setBit(seat);
+    }
+
+    /**
+     * Frees an assigned seat and returns it to the counters
+     */
+    public boolean vacate(TravelClass travelClass, int seat) {
+        checkSeat(travelClass, seat);
+        if (!clearBit(seat)) {
+            return false;
+        }
+        inventory.release(flightId, travelClass, 1);
+        return true;
+    }
+
+    /**
+     * Finds and assigns n adjacent seats in one row, retrying if another
+     * booking takes them first. Returns the first seat, or -1 if no row has
+     * n adjacent free seats.
+     */
+    public int assignAdjacent(TravelClass travelClass, int n) {
+        for (;;) {
+            int first = findAdjacent(travelClass, n);
+            if (first < 0) {
+                return -1;
+            }
+            int[] seats = new int[n];
+            for (int i = 0; i < n; i++) {
+                seats[i] = first + i;
+            }
+            if (assign(travelClass, seats)) {
+                return first;
+            }
+            if (inventory.available(flightId, travelClass) < n) {
+                return -1;
+            }
+        }
+    }
+
+    // Queries
+    public boolean isFree(int seat) {
+        return (word(seat >>> 6) & (1L << seat)) == 0;
+    }
+
+    /**
+     * First seat of the frontmost run of n adjacent free seats in a row that
+     * does not cross an aisle, or -1 if there is none
+     */
+    public int findAdjacent(TravelClass travelClass, int n) {
+        SeatLayout.Cabin cabin = layout.cabin(travelClass);
+        if (cabin == null || n <= 0 || n > cabin.getSeatsPerRow()) {
+            return -1;
+        }
+        long starts = cabin.adjacentStarts(n);
+        int rowStart = layout.firstSeat(travelClass);
+        for (int row = 0; row < cabin.getRows(); row++, rowStart += cabin.getSeatsPerRow()) {
+            long free = ~rowBits(rowStart, cabin.getSeatsPerRow()) & cabin.getRowMask();
+            long runs = free & starts;
+            for (int i = 1; i < n && runs != 0; i++) {
+                runs &= free >>> i;
+            }
+            if (runs != 0) {
+                return rowStart + Long.numberOfTrailingZeros(runs);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Free window seats of a cabin, front to back
+     */
+    public int[] freeWindowSeats(TravelClass travelClass) {
+        SeatLayout.Cabin cabin = layout.cabin(travelClass);
+        if (cabin == null) {
+            return new int[0];
+        }
+        int[] seats = new int[cabin.getRows() * 2];
+        int count = 0;
+        int rowStart = layout.firstSeat(travelClass);
+        for (int row = 0; row < cabin.getRows(); row++, rowStart += cabin.getSeatsPerRow()) {
+            long free = ~rowBits(rowStart, cabin.getSeatsPerRow()) & cabin.getWindowMask();
+            while (free != 0) {
+                seats[count++] = rowStart + Long.numberOfTrailingZeros(free);
+                free &= free - 1;
+            }
+        }
+        return Arrays.copyOf(seats, count);
+    }
+
+    /**
+     * Number of assigned seats in a cabin
+     */
+    public int occupied(TravelClass travelClass) {
+        SeatLayout.Cabin cabin = layout.cabin(travelClass);
+        if (cabin == null) {
+            return 0;
+        }
+        int count = 0;
+        int rowStart = layout.firstSeat(travelClass);
+        for (int row = 0; row < cabin.getRows(); row++, rowStart += cabin.getSeatsPerRow()) {
+            count += Long.bitCount(rowBits(rowStart, cabin.getSeatsPerRow()));
+        }
+        return count;
+    }
+
+    // Bits
+    private long word(int index) {
+        return (long) WORDS.getAcquire(occupied, index);
+    }
+
+    /**
+     * Occupancy of width seats starting at a seat, in the low bits
+     */
+    private long rowBits(int from, int width) {
+        int index = from >>> 6;
+        int shift = from & 63;
+        long bits = word(index) >>> shift;
+        if (shift + width > 64) {
+            bits |= word(index + 1) << (64 - shift);
+        }
+        return bits & ((1L << width) - 1);
+    }
+
+    private boolean setBit(int seat) {
+        int index = seat >>> 6;
+        long bit = 1L << seat;
+        for (;;) {
+            long current = word(index);
+            if ((current & bit) != 0) {
+                return false;
+            }
+            if (WORDS.compareAndSet(occupied, index, current, current | bit)) {
+                return true;
+            }
+        }
+    }
+
+    private boolean clearBit(int seat) {
+        int index = seat >>> 6;
+        long bit = 1L << seat;
+        for (;;) {
+            long current = word(index);
+            if ((current & bit) == 0) {
+                return false;
+            }
+            if (WORDS.compareAndSet(occupied, index, current, current & ~bit)) {
+                return true;
+            }
+        }
+    }
+
+    private static SeatLayout seatLayoutOf(Flight flight) {
+        AircraftLayout aircraft = flight.getAircraftLayout();
+        if (aircraft == null || aircraft.getSeatLayout() == null) {
+            throw new IllegalArgumentException("No seat layout is defined for aircraft type "
+                    + flight.getAircraftType() + " of flight " + flight.getFlightNumber());
+        }
+        return aircraft.getSeatLayout();
+    }
+
+    private void checkSeat(TravelClass travelClass, int seat) {
+        SeatLayout.Cabin cabin = layout.cabin(travelClass);
+        int first = layout.firstSeat(travelClass);
+        if (cabin == null || seat < first || seat >= first + cabin.getSeatCount()) {
+            throw new IllegalArgumentException("Seat " + seat + " is not in the " + travelClass.getCode() + " cabin");
+        }
+    }
+}
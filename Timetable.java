@@ -0,0 +1,137 @@
+package com.smartwings.search;
+
+import com.smartwings.model.CodeDictionary;
+import com.smartwings.model.Flight;
+import com.smartwings.model.Money;
+import com.smartwings.model.TravelClass;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Timetable
+ * Immutable, precomputed connection timetable for itinerary search. Every
+ * flight is one connection; connections are stored as parallel primitive
+ * arrays sorted by departure so a search is a single forward scan.
+ *
+ * Times are minutes since the epoch, taken from the Flight departure and
+ * arrival times as recorded (the model carries no time zones). Prices are
+ * in Money minor units; a missing cabin price or capacity makes the cabin unsellable.
+ * Stops are the CodeDictionary ids of the airports.
+ */
+public final class Timetable {
+
+    private final int stopCount;
+    private final int[] minConnectionMinutes;
+
+    final int[] departureStop;
+    final int[] arrivalStop;
+    final int[] departureMinute;
+    final int[] arrivalMinute;
+    final long[] flightIds;
+    final long[] prices;
+    final int[] available;
+
+    private Timetable(int stopCount, int[] minConnectionMinutes,
+                      int[] departureStop, int[] arrivalStop, int[] departureMinute, int[] arrivalMinute,
+                      long[] flightIds, long[] prices, int[] available) {
+        this.stopCount = stopCount;
+        this.minConnectionMinutes = minConnectionMinutes;
+        this.departureStop = departureStop;
+        this.arrivalStop = arrivalStop;
+        this.departureMinute = departureMinute;
+        this.arrivalMinute = arrivalMinute;
+        this.flightIds = flightIds;
+        this.prices = prices;
+        this.available = available;
+    }
+
+    /**
+     * Builds a timetable from a schedule snapshot.
+     *
+     * @param defaultMinConnectionMinutes minimum connection time at airports without an override
+     * @param minConnectionMinutes        per-airport minimum connection times
+     */
+    public static Timetable build(Collection<Flight> flights, int defaultMinConnectionMinutes,
+                                  Map<String, Integer> minConnectionMinutes) {
+        List<Flight> sorted = new ArrayList<>(flights);
+        sorted.sort((a, b) -> a.getDepartureTime().compareTo(b.getDepartureTime()));
+
+        int n = sorted.size();
+        int[] departureStop = new int[n];
+        int[] arrivalStop = new int[n];
+        int[] departureMinute = new int[n];
+        int[] arrivalMinute = new int[n];
+        long[] flightIds = new long[n];
+        long[] prices = new long[n * TravelClass.COUNT];
+        int[] available = new int[n * TravelClass.COUNT];
+
+        for (int c = 0; c < n; c++) {
+            Flight flight = sorted.get(c);
+            departureStop[c] = flight.getOriginAirportId();
+            arrivalStop[c] = flight.getDestinationAirportId();
+            departureMinute[c] = toMinute(flight.getDepartureTime());
+            arrivalMinute[c] = toMinute(flight.getArrivalTime());
+            flightIds[c] = flight.getId();
+            for (TravelClass travelClass : TravelClass.values()) {
+                long fare = flight.getFareForClass(travelClass);
+                int slot = c * TravelClass.COUNT + travelClass.ordinal();
+                boolean sellable = Money.isPresent(fare) && flight.getSeats(travelClass) > 0;
+                prices[slot] = sellable ? fare : Long.MAX_VALUE;
+                available[slot] = sellable ? flight.getAvailable(travelClass) : 0;
+            }
+        }
+
+        int stopCount = CodeDictionary.AIRPORTS.size();
+        int[] mct = new int[stopCount];
+        for (int stop = 0; stop < stopCount; stop++) {
+            mct[stop] = minConnectionMinutes.getOrDefault(CodeDictionary.AIRPORTS.decode(stop),
+                    defaultMinConnectionMinutes);
+        }
+        return new Timetable(stopCount, mct,
+                departureStop, arrivalStop, departureMinute, arrivalMinute, flightIds, prices, available);
+    }
+
+    public static int toMinute(LocalDateTime time) {
+        return (int) (time.toEpochSecond(ZoneOffset.UTC) / 60);
+    }
+
+    public static LocalDateTime fromMinute(int minute) {
+        return LocalDateTime.ofEpochSecond(minute * 60L, 0, ZoneOffset.UTC);
+    }
+
+    // Accessors
+    public int size() { return flightIds.length; }
+    public int stopCount() { return stopCount; }
+
+    /**
+     * Stop id of an airport code, or -1 if the airport was unknown when the
+     * timetable was built
+     */
+    public int stopOf(String airport) {
+        int id = CodeDictionary.AIRPORTS.find(airport);
+        return id < stopCount ? id : -1;
+    }
+
+    public String airportOf(int stop) { return CodeDictionary.AIRPORTS.decode(stop); }
+    public int minConnectionMinutes(int stop) { return minConnectionMinutes[stop]; }
+
+    /**
+     * Index of the first connection departing at or after the minute
+     */
+    public int firstDepartingAtOrAfter(int minute) {
+        int index = Arrays.binarySearch(departureMinute, minute);
+        if (index < 0) {
+            return -index - 1;
+        }
+        while (index > 0 && departureMinute[index - 1] == minute) {
+            index--;
+        }
+        return index;
+    }
+}
@@ -0,0 +1,56 @@
+package com.smartwings.model;
+
+/**
+ * Travel Class Enumeration
+ * Cabins sold on a flight. The ordinal is used as the index into the
+ * per-cabin arrays of Flight, so constants must only ever be appended.
+ */
+public enum TravelClass {
+    ECONOMY("economy", "economy"),
+    PREMIUM_ECONOMY("premium-economy", "premium_economy"),
+    BUSINESS("business", "business"),
+    FIRST("first", "first_class");
+
+    public static final int COUNT = values().length;
+
+    private static final TravelClass[] BY_INDEX = values();
+
+    private final String code;
+    private final String columnPrefix;
+
+    TravelClass(String code, String columnPrefix) {
+        this.code = code;
+        this.columnPrefix = columnPrefix;
+    }
+
+    /**
+     * Code used by the booking page, e.g. "premium-economy"
+     */
+    public String getCode() { return code; }
+
+    /**
+     * Prefix of the cabin's columns in the flights table, e.g. "first_class"
+     */
+    public String getColumnPrefix() { return columnPrefix; }
+
+    public static TravelClass fromIndex(int index) {
+        return BY_INDEX[index];
+    }
+
+    /**
+     * Parses a booking page or API class code, ignoring case and accepting
+     * underscores for hyphens. Returns null for unknown codes.
+     */
+    public static TravelClass fromCode(String code) {
+        if (code == null) {
+            return null;
+        }
+        String hyphenated = code.replace('_', '-');
+        for (TravelClass travelClass : BY_INDEX) {
+            if (travelClass.code.equalsIgnoreCase(hyphenated) || travelClass.name().equalsIgnoreCase(code)) {
+                return travelClass;
+            }
+        }
+        return null;
+    }
+}
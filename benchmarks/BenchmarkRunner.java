@@ -0,0 +1,54 @@
+package com.smartwings.benchmark;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Benchmark Runner
+ * Runs the suites with the settings used for published numbers: two forks,
+ * a fixed heap so GC behaviour is comparable, and the GC profiler attached
+ * so every result carries allocation rate and GC counts. Any standard JMH
+ * command-line option (e.g. a benchmark regex) is passed through and takes
+ * precedence over these defaults; listing and help options are answered by
+ * JMH's own launcher without running.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {}
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions options = new CommandLineOptions(args);
+        if (options.shouldHelp() || options.shouldList() || options.shouldListWithParams()
+                || options.shouldListProfilers() || options.shouldListResultFormats()) {
+            Main.main(args);
+            return;
+        }
+        // Options set on the parent win over the builder's only where the
+        // builder leaves them unset, so defaults go in only when absent
+        ChainedOptionsBuilder builder = new OptionsBuilder()
+                .parent(options)
+                .addProfiler(GCProfiler.class);
+        if (!options.getForkCount().hasValue()) {
+            builder.forks(2);
+        }
+        // Command-line JVM arguments come after the defaults, so -Xmx etc. override them
+        List<String> jvmArgs = new ArrayList<>(List.of("-Xms2g", "-Xmx2g", "-XX:+UseG1GC", "-XX:+AlwaysPreTouch"));
+        jvmArgs.addAll(options.getJvmArgsAppend().orElse(List.of()));
+        builder.jvmArgsAppend(jvmArgs.toArray(new String[0]));
+        if (!options.getResultFormat().hasValue()) {
+            builder.resultFormat(ResultFormatType.JSON);
+        }
+        if (!options.getResult().hasValue()) {
+            builder.result("jmh-result.json");
+        }
+        new Runner(builder.build()).run();
+    }
+}
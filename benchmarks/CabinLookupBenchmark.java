@@ -0,0 +1,96 @@
+package com.smartwings.benchmark;
+
+import com.smartwings.model.Flight;
+import com.smartwings.model.TravelClass;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cabin Lookup Benchmark
+ * hasSeatsAvailable and getPriceForClass through the TravelClass overloads,
+ * the String overloads, and the original toLowerCase string switch kept
+ * here as the baseline.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CabinLookupBenchmark {
+
+    @Param({"economy", "Business", "premium-economy"})
+    public String code;
+
+    private Flight flight;
+    private TravelClass travelClass;
+
+    @Setup
+    public void setUp() {
+        flight = FlightFixtures.schedule(1)[0];
+        travelClass = TravelClass.fromCode(code);
+    }
+
+    @Benchmark
+    public boolean hasSeatsAvailableEnum() {
+        return flight.hasSeatsAvailable(travelClass, 2);
+    }
+
+    @Benchmark
+    public boolean hasSeatsAvailableString() {
+        return flight.hasSeatsAvailable(code, 2);
+    }
+
+    @Benchmark
+    public boolean hasSeatsAvailableStringSwitch() {
+        return legacyHasSeatsAvailable(flight, code, 2);
+    }
+
+    @Benchmark
+    public BigDecimal priceForClassEnum() {
+        return flight.getPriceForClass(travelClass);
+    }
+
+    @Benchmark
+    public BigDecimal priceForClassString() {
+        return flight.getPriceForClass(code);
+    }
+
+    @Benchmark
+    public BigDecimal priceForClassStringSwitch() {
+        return legacyPriceForClass(flight, code);
+    }
+
+    // Baseline: the Flight methods as they were before TravelClass
+    static boolean legacyHasSeatsAvailable(Flight flight, String travelClass, int requestedSeats) {
+        switch (travelClass.toLowerCase()) {
+            case "economy":
+                return flight.getEconomyAvailable() >= requestedSeats;
+            case "business":
+                return flight.getBusinessAvailable() >= requestedSeats;
+            case "first":
+                return flight.getFirstClassAvailable() >= requestedSeats;
+            default:
+                return false;
+        }
+    }
+
+    static BigDecimal legacyPriceForClass(Flight flight, String travelClass) {
+        switch (travelClass.toLowerCase()) {
+            case "economy":
+                return flight.getEconomyPrice();
+            case "business":
+                return flight.getBusinessPrice();
+            case "first":
+                return flight.getFirstClassPrice();
+            default:
+                return flight.getEconomyPrice();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.smartwings.benchmark;
+
+import com.smartwings.model.Flight;
+import com.smartwings.model.TravelClass;
+import com.smartwings.schedule.ColumnarSchedule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Columnar Scan Benchmark
+ * Full scan for the flights of one route-day with seats in a cabin, over
+ * on-heap Flight entities and over the off-heap ColumnarSchedule. Run with
+ * the GC profiler to compare allocation per scan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ColumnarScanBenchmark {
+
+    @Param({"1000000"})
+    public int size;
+
+    private Flight[] flights;
+    private ColumnarSchedule schedule;
+    private final int[] rows = new int[1024];
+    private int origin;
+    private int destination;
+    private long from;
+    private long to;
+
+    @Setup
+    public void setUp() {
+        flights = FlightFixtures.schedule(size);
+        schedule = new ColumnarSchedule(size);
+        for (Flight flight : flights) {
+            schedule.put(flight);
+        }
+        origin = flights[0].getOriginAirportId();
+        destination = flights[0].getDestinationAirportId();
+        LocalDateTime day = flights[0].getDepartureTime().toLocalDate().atStartOfDay();
+        from = day.toEpochSecond(ZoneOffset.UTC);
+        to = day.plusDays(1).toEpochSecond(ZoneOffset.UTC);
+    }
+
+    @Benchmark
+    public int scanEntities() {
+        LocalDateTime dayStart = LocalDateTime.ofEpochSecond(from, 0, ZoneOffset.UTC);
+        LocalDateTime dayEnd = LocalDateTime.ofEpochSecond(to, 0, ZoneOffset.UTC);
+        int count = 0;
+        for (Flight flight : flights) {
+            if (flight.getOriginAirportId() == origin && flight.getDestinationAirportId() == destination
+                    && !flight.getDepartureTime().isBefore(dayStart) && flight.getDepartureTime().isBefore(dayEnd)
+                    && flight.hasSeatsAvailable(TravelClass.ECONOMY, 2)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int scanColumns() {
+        int count = 0;
+        int found;
+        int start = 0;
+        while ((found = schedule.select(origin, destination, from, to, TravelClass.ECONOMY, 2, start, rows)) > 0) {
+            count += found;
+            if (found < rows.length) {
+                break;
+            }
+            start = rows[found - 1] + 1;
+        }
+        return count;
+    }
+}
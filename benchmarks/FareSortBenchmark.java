@@ -0,0 +1,70 @@
+package com.smartwings.benchmark;
+
+import com.smartwings.model.Flight;
+import com.smartwings.model.TravelClass;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fare Sort Benchmark
+ * Sorting a schedule by cabin fare through the BigDecimal getPriceForClass
+ * and through the long getFareForClass. Run with the GC profiler: the
+ * decimal comparator allocates on every comparison, the packed long sort
+ * allocates nothing beyond its preallocated key array.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FareSortBenchmark {
+
+    @Param({"100000"})
+    public int size;
+
+    private Flight[] schedule;
+    private Flight[] working;
+    private Flight[] sorted;
+    private long[] keys;
+
+    @Setup
+    public void setUp() {
+        schedule = FlightFixtures.schedule(size);
+        working = new Flight[size];
+        sorted = new Flight[size];
+        keys = new long[size];
+    }
+
+    @Setup(Level.Invocation)
+    public void reset() {
+        System.arraycopy(schedule, 0, working, 0, size);
+    }
+
+    @Benchmark
+    public Flight[] sortByDecimalPrice() {
+        Arrays.sort(working, Comparator.comparing((Flight flight) -> flight.getPriceForClass(TravelClass.BUSINESS)));
+        return working;
+    }
+
+    @Benchmark
+    public Flight[] sortByFixedPointFare() {
+        // Fare in the high bits, position in the low 20 bits: one primitive sort
+        for (int i = 0; i < size; i++) {
+            keys[i] = working[i].getFareForClass(TravelClass.BUSINESS) << 20 | i;
+        }
+        Arrays.sort(keys);
+        for (int i = 0; i < size; i++) {
+            sorted[i] = working[(int) (keys[i] & 0xFFFFF)];
+        }
+        return sorted;
+    }
+}
@@ -0,0 +1,94 @@
+package com.smartwings.benchmark;
+
+import com.smartwings.model.Flight;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Random;
+
+/**
+ * Flight Cache Footprint
+ * Retained heap of a cache of flights hydrated the way a JPA provider does
+ * it, where every row arrives with its own copies of the airline, airport
+ * and city strings. Compares the dictionary-encoded entities with the same
+ * entities plus the per-row strings that String fields used to keep alive.
+ *
+ * Not a JMH benchmark: run the main method with a fixed heap, e.g.
+ * java -Xms4g -Xmx4g -XX:+UseG1GC ... FlightCacheFootprint 1000000
+ */
+public final class FlightCacheFootprint {
+
+    private FlightCacheFootprint() {}
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        long baseline = usedHeap();
+        Flight[] encoded = hydrate(size);
+        long encodedBytes = usedHeap() - baseline;
+
+        String[] rowStrings = rowStrings(size);
+        long legacyBytes = usedHeap() - baseline;
+
+        System.out.printf("flights:                 %,d%n", size);
+        System.out.printf("encoded cache:           %,d MB (%d bytes/flight)%n",
+                encodedBytes >> 20, encodedBytes / size);
+        System.out.printf("with per-row strings:    %,d MB (%d bytes/flight)%n",
+                legacyBytes >> 20, legacyBytes / size);
+        System.out.printf("reduction:               %.1f%%%n", 100.0 * (legacyBytes - encodedBytes) / legacyBytes);
+
+        // Keep both alive until measured
+        if (encoded.length + rowStrings.length == 0) {
+            System.out.println();
+        }
+    }
+
+    private static Flight[] hydrate(int size) {
+        Random random = new Random(FlightFixtures.SEED);
+        Flight[] flights = new Flight[size];
+        for (int i = 0; i < size; i++) {
+            Flight flight = FlightFixtures.flight(i, random);
+            // Fresh copies, as read from a result set
+            flight.setAirline(copy(flight.getAirline()));
+            flight.setOriginAirport(copy(flight.getOriginAirport()));
+            flight.setOriginCity(copy(flight.getOriginCity()));
+            flight.setDestinationAirport(copy(flight.getDestinationAirport()));
+            flight.setDestinationCity(copy(flight.getDestinationCity()));
+            flights[i] = flight;
+        }
+        return flights;
+    }
+
+    /**
+     * Five strings per row in one flat array, so the only overhead beyond the
+     * strings is one reference each, the size of the int ids they replace
+     */
+    private static String[] rowStrings(int size) {
+        Random random = new Random(FlightFixtures.SEED);
+        String[] strings = new String[size * 5];
+        for (int i = 0, at = 0; i < size; i++) {
+            Flight flight = FlightFixtures.flight(i, random);
+            strings[at++] = copy(flight.getAirline());
+            strings[at++] = copy(flight.getOriginAirport());
+            strings[at++] = copy(flight.getOriginCity());
+            strings[at++] = copy(flight.getDestinationAirport());
+            strings[at++] = copy(flight.getDestinationCity());
+        }
+        return strings;
+    }
+
+    /**
+     * A string with its own character data, as a result set returns it
+     */
+    private static String copy(String value) {
+        return new String(value.toCharArray());
+    }
+
+    private static long usedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,59 @@
+package com.smartwings.benchmark;
+
+import com.smartwings.model.Flight;
+import com.smartwings.model.TravelClass;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+/**
+ * Flight Fixtures
+ * Deterministic flight schedules for the benchmarks. The same seed always
+ * produces the same schedule so runs are comparable across machines.
+ */
+public final class FlightFixtures {
+
+    public static final long SEED = 0x5eed_f11eL;
+
+    public static final String[] AIRPORTS = {"NYC", "LAX", "CHI", "MIA", "SEA", "SFO", "BOS", "ATL"};
+    public static final String[] CITIES = {
+            "New York", "Los Angeles", "Chicago", "Miami", "Seattle", "San Francisco", "Boston", "Atlanta"
+    };
+    public static final String[] AIRCRAFT = {"A320", "A321", "B737-800", "B787-9", "A350-900"};
+    public static final LocalDateTime SCHEDULE_START = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    private FlightFixtures() {}
+
+    public static Flight[] schedule(int size) {
+        Random random = new Random(SEED);
+        Flight[] flights = new Flight[size];
+        for (int i = 0; i < size; i++) {
+            flights[i] = flight(i, random);
+        }
+        return flights;
+    }
+
+    public static Flight flight(int index, Random random) {
+        int origin = random.nextInt(AIRPORTS.length);
+        int destination = (origin + 1 + random.nextInt(AIRPORTS.length - 1)) % AIRPORTS.length;
+        LocalDateTime departure = SCHEDULE_START.plusMinutes(5L * random.nextInt(365 * 24 * 12));
+
+        Flight flight = new Flight("SW" + index, "SmartWings", AIRPORTS[origin], CITIES[origin],
+                AIRPORTS[destination], CITIES[destination], departure,
+                departure.plusMinutes(60 + random.nextInt(360)), AIRCRAFT[random.nextInt(AIRCRAFT.length)],
+                BigDecimal.valueOf(4_900 + random.nextInt(60_000), 2));
+        flight.setId((long) index + 1);
+        flight.setPremiumEconomyPrice(flight.getEconomyPrice().multiply(BigDecimal.valueOf(2)));
+        flight.setBusinessPrice(flight.getEconomyPrice().multiply(BigDecimal.valueOf(4)));
+        flight.setFirstClassPrice(flight.getEconomyPrice().multiply(BigDecimal.valueOf(8)));
+        flight.setSeats(TravelClass.ECONOMY, 150);
+        flight.setSeats(TravelClass.PREMIUM_ECONOMY, 24);
+        flight.setSeats(TravelClass.BUSINESS, 20);
+        flight.setSeats(TravelClass.FIRST, 8);
+        for (TravelClass travelClass : TravelClass.values()) {
+            flight.setAvailable(travelClass, random.nextInt(flight.getSeats(travelClass) + 1));
+        }
+        return flight;
+    }
+}
@@ -0,0 +1,78 @@
+package com.smartwings.benchmark;
+
+import com.smartwings.model.Flight;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Flight Identity Benchmark
+ * equals/hashCode through large HashSets, and toString as used when logging.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FlightIdentityBenchmark {
+
+    @Param({"100000"})
+    public int size;
+
+    private Flight[] flights;
+    private Flight[] probes;
+    private Set<Flight> set;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        flights = FlightFixtures.schedule(size);
+        set = new HashSet<>();
+        for (Flight flight : flights) {
+            set.add(flight);
+        }
+        // Half hits through equal copies, half misses
+        Flight[] others = FlightFixtures.schedule(size * 2);
+        probes = new Flight[size];
+        for (int i = 0; i < size; i++) {
+            probes[i] = others[i * 2 + (i & 1)];
+        }
+    }
+
+    private int next() {
+        int i = cursor;
+        cursor = i + 1 == size ? 0 : i + 1;
+        return i;
+    }
+
+    @Benchmark
+    public int hashCodeOnly() {
+        return flights[next()].hashCode();
+    }
+
+    @Benchmark
+    public boolean setContains() {
+        return set.contains(probes[next()]);
+    }
+
+    @Benchmark
+    public Set<Flight> setBuild() {
+        Set<Flight> built = new HashSet<>();
+        for (Flight flight : flights) {
+            built.add(flight);
+        }
+        return built;
+    }
+
+    @Benchmark
+    public String toStringForLogging() {
+        return flights[next()].toString();
+    }
+}
@@ -0,0 +1,58 @@
+package com.smartwings.benchmark;
+
+import com.smartwings.model.Flight;
+import com.smartwings.model.FlightValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import javax.validation.Validation;
+import javax.validation.Validator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Flight Validation Benchmark
+ * Cost of validating one valid flight, as on the import and persist paths:
+ * the Bean Validation provider reading the annotations on Flight, against
+ * FlightValidator's plain comparisons. Needs a provider such as Hibernate
+ * Validator on the benchmark classpath.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FlightValidationBenchmark {
+
+    @Param({"10000"})
+    public int size;
+
+    private Flight[] flights;
+    private Validator validator;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        flights = FlightFixtures.schedule(size);
+        validator = Validation.buildDefaultValidatorFactory().getValidator();
+    }
+
+    private Flight next() {
+        int i = cursor;
+        cursor = i + 1 == size ? 0 : i + 1;
+        return flights[i];
+    }
+
+    @Benchmark
+    public int beanValidation() {
+        return validator.validate(next()).size();
+    }
+
+    @Benchmark
+    public int compiledValidator() {
+        return FlightValidator.validate(next()).size();
+    }
+}
@@ -0,0 +1,127 @@
+package com.smartwings.benchmark;
+
+import com.smartwings.model.Flight;
+import com.smartwings.repository.PooledIdAllocator;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Random;
+
+/**
+ * Id Generation Benchmark
+ * Insert throughput of a schedule load under the two id strategies, issuing
+ * the statements a JPA provider issues for each: with IDENTITY every insert
+ * runs on its own and reads back the generated key, with a pooled sequence
+ * ids are drawn in blocks and the inserts go out in JDBC batches.
+ *
+ * Not a JMH benchmark: it runs against a real database, in scratch tables it
+ * creates and drops. Put the JDBC driver on the classpath and run e.g.
+ * java ... IdGenerationBenchmark jdbc:postgresql://localhost/bench "SELECT nextval('id_bench_seq')" 200000
+ */
+public final class IdGenerationBenchmark {
+
+    private static final int JDBC_BATCH_SIZE = 50;
+    private static final int COMMIT_ROWS = 10_000;
+
+    private IdGenerationBenchmark() {}
+
+    public static void main(String[] args) throws SQLException {
+        if (args.length < 2) {
+            System.err.println("usage: IdGenerationBenchmark <jdbc-url> <next-id-sql for id_bench_seq> [rows]");
+            return;
+        }
+        int size = args.length > 2 ? Integer.parseInt(args[2]) : 200_000;
+
+        try (Connection connection = DriverManager.getConnection(args[0])) {
+            connection.setAutoCommit(false);
+            createTables(connection);
+            try {
+                double identity = insertWithIdentity(connection, size);
+                double pooled = insertPooled(connection, size,
+                        new PooledIdAllocator(args[1], Flight.ID_ALLOCATION_SIZE));
+                System.out.printf("rows:                    %,d%n", size);
+                System.out.printf("identity:                %,.0f rows/s%n", identity);
+                System.out.printf("pooled sequence (%d):    %,.0f rows/s%n", Flight.ID_ALLOCATION_SIZE, pooled);
+                System.out.printf("speedup:                 %.1fx%n", pooled / identity);
+            } finally {
+                dropTables(connection);
+            }
+        }
+    }
+
+    private static double insertWithIdentity(Connection connection, int size) throws SQLException {
+        Random random = new Random(FlightFixtures.SEED);
+        long start = System.nanoTime();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO id_bench_identity (flight_number, departure_time, economy_seats) VALUES (?, ?, ?)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < size; i++) {
+                bind(insert, 1, i, random);
+                insert.executeUpdate();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                }
+                if ((i + 1) % COMMIT_ROWS == 0) {
+                    connection.commit();
+                }
+            }
+            connection.commit();
+        }
+        return size / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private static double insertPooled(Connection connection, int size, PooledIdAllocator ids) throws SQLException {
+        Random random = new Random(FlightFixtures.SEED);
+        long start = System.nanoTime();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO id_bench_pooled (id, flight_number, departure_time, economy_seats) VALUES (?, ?, ?, ?)")) {
+            for (int i = 0; i < size; i++) {
+                insert.setLong(1, ids.nextId(connection));
+                bind(insert, 2, i, random);
+                insert.addBatch();
+                if ((i + 1) % JDBC_BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+                if ((i + 1) % COMMIT_ROWS == 0) {
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+        return size / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private static void bind(PreparedStatement insert, int parameter, int index, Random random) throws SQLException {
+        insert.setString(parameter, "SW" + index);
+        insert.setTimestamp(parameter + 1,
+                Timestamp.valueOf(FlightFixtures.SCHEDULE_START.plusMinutes(5L * random.nextInt(365 * 24 * 12))));
+        insert.setInt(parameter + 2, 150);
+    }
+
+    private static void createTables(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE id_bench_identity (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                    + "flight_number VARCHAR(10) NOT NULL, departure_time TIMESTAMP NOT NULL, economy_seats INT)");
+            statement.execute("CREATE TABLE id_bench_pooled (id BIGINT PRIMARY KEY, "
+                    + "flight_number VARCHAR(10) NOT NULL, departure_time TIMESTAMP NOT NULL, economy_seats INT)");
+            statement.execute("CREATE SEQUENCE id_bench_seq START WITH 1 INCREMENT BY " + Flight.ID_ALLOCATION_SIZE);
+        }
+        connection.commit();
+    }
+
+    private static void dropTables(Connection connection) throws SQLException {
+        connection.rollback();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE id_bench_identity");
+            statement.execute("DROP TABLE id_bench_pooled");
+            statement.execute("DROP SEQUENCE id_bench_seq");
+        }
+        connection.commit();
+    }
+}
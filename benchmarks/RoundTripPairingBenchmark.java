@@ -0,0 +1,89 @@
+package com.smartwings.benchmark;
+
+import com.smartwings.model.Flight;
+import com.smartwings.model.TravelClass;
+import com.smartwings.search.RoundTripPairer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round Trip Pairing Benchmark
+ * Top-k round trips on a busy trunk route through the streaming pairer,
+ * against materializing and sorting the full cross product.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RoundTripPairingBenchmark {
+
+    private static final int TURNAROUND_MINUTES = 60;
+
+    @Param({"500", "1000"})
+    public int dailyFlights;
+
+    @Param({"10", "50"})
+    public int k;
+
+    private List<Flight> outbound;
+    private List<Flight> inbound;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(FlightFixtures.SEED);
+        outbound = route(random, 0, "NYC", "LAX");
+        inbound = route(random, dailyFlights, "LAX", "NYC");
+    }
+
+    private List<Flight> route(Random random, int firstIndex, String origin, String destination) {
+        List<Flight> flights = new ArrayList<>(dailyFlights);
+        for (int i = 0; i < dailyFlights; i++) {
+            Flight flight = FlightFixtures.flight(firstIndex + i, random);
+            flight.setOriginAirport(origin);
+            flight.setDestinationAirport(destination);
+            flight.setDepartureTime(FlightFixtures.SCHEDULE_START.plusMinutes(random.nextInt(24 * 60)));
+            flight.setArrivalTime(flight.getDepartureTime().plusMinutes(330));
+            flights.add(flight);
+        }
+        return flights;
+    }
+
+    @Benchmark
+    public List<RoundTripPairer.RoundTrip> streamingTopK() {
+        return new RoundTripPairer(outbound, inbound, TravelClass.ECONOMY, 1, TURNAROUND_MINUTES).top(k);
+    }
+
+    @Benchmark
+    public List<Flight[]> crossProductTopK() {
+        List<Flight[]> pairs = new ArrayList<>();
+        for (Flight out : outbound) {
+            if (!out.hasSeatsAvailable(TravelClass.ECONOMY, 1)) {
+                continue;
+            }
+            for (Flight back : inbound) {
+                if (back.hasSeatsAvailable(TravelClass.ECONOMY, 1) && !back.getDepartureTime()
+                        .isBefore(out.getArrivalTime().plusMinutes(TURNAROUND_MINUTES))) {
+                    pairs.add(new Flight[] {out, back});
+                }
+            }
+        }
+        pairs.sort(Comparator.comparing((Flight[] pair) -> combinedFare(pair)));
+        return pairs.subList(0, Math.min(k, pairs.size()));
+    }
+
+    private static BigDecimal combinedFare(Flight[] pair) {
+        return pair[0].getPriceForClass(TravelClass.ECONOMY).add(pair[1].getPriceForClass(TravelClass.ECONOMY));
+    }
+}
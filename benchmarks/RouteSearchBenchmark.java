@@ -0,0 +1,58 @@
+package com.smartwings.benchmark;
+
+import com.smartwings.model.Flight;
+import com.smartwings.model.TravelClass;
+import com.smartwings.search.RouteDayIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Route Search Benchmark
+ * Route-day searches against a full schedule. SampleTime mode reports the
+ * latency percentiles the search target is stated in.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RouteSearchBenchmark {
+
+    @Param({"2000000"})
+    public int size;
+
+    private RouteDayIndex index;
+    private Flight[] flights;
+    private final SplittableRandom random = new SplittableRandom(FlightFixtures.SEED);
+
+    @Setup
+    public void setUp() {
+        flights = FlightFixtures.schedule(size);
+        index = new RouteDayIndex();
+        for (Flight flight : flights) {
+            index.upsert(flight);
+        }
+    }
+
+    @Benchmark
+    public long[] search() {
+        String origin = FlightFixtures.AIRPORTS[random.nextInt(FlightFixtures.AIRPORTS.length)];
+        String destination = FlightFixtures.AIRPORTS[random.nextInt(FlightFixtures.AIRPORTS.length)];
+        LocalDate day = FlightFixtures.SCHEDULE_START.toLocalDate().plusDays(random.nextInt(365));
+        return index.search(origin, destination, day, TravelClass.ECONOMY, 2);
+    }
+
+    @Benchmark
+    public void updateAvailability() {
+        Flight flight = flights[random.nextInt(flights.length)];
+        index.updateAvailability(flight.getId(), TravelClass.ECONOMY, random.nextInt(150));
+    }
+}
@@ -0,0 +1,94 @@
+package com.smartwings.benchmark;
+
+import com.smartwings.model.Flight;
+import com.smartwings.model.TravelClass;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedule Hydration Benchmark
+ * Cost of turning a schedule's worth of column values into Flight entities
+ * the way a JPA provider does it: no-arg constructor, then one setter per
+ * column. The rows are prepared up front so only hydration is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ScheduleHydrationBenchmark {
+
+    @Param({"100000"})
+    public int size;
+
+    private Object[][] rows;
+
+    @Setup
+    public void setUp() {
+        Flight[] flights = FlightFixtures.schedule(size);
+        rows = new Object[size][];
+        for (int i = 0; i < size; i++) {
+            Flight f = flights[i];
+            rows[i] = new Object[] {
+                    f.getId(), f.getFlightNumber(), f.getAirline(), f.getOriginAirport(), f.getOriginCity(),
+                    f.getDestinationAirport(), f.getDestinationCity(), f.getDepartureTime(), f.getArrivalTime(),
+                    f.getAircraftType(), f.getEconomyPrice(), f.getPremiumEconomyPrice(), f.getBusinessPrice(),
+                    f.getFirstClassPrice(), f.getEconomySeats(), f.getPremiumEconomySeats(), f.getBusinessSeats(),
+                    f.getFirstClassSeats(), f.getEconomyAvailable(), f.getPremiumEconomyAvailable(),
+                    f.getBusinessAvailable(), f.getFirstClassAvailable()
+            };
+        }
+    }
+
+    @Benchmark
+    public Flight[] hydrate() {
+        Flight[] flights = new Flight[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            Object[] row = rows[i];
+            Flight flight = new Flight();
+            flight.setId((Long) row[0]);
+            flight.setFlightNumber((String) row[1]);
+            flight.setAirline((String) row[2]);
+            flight.setOriginAirport((String) row[3]);
+            flight.setOriginCity((String) row[4]);
+            flight.setDestinationAirport((String) row[5]);
+            flight.setDestinationCity((String) row[6]);
+            flight.setDepartureTime((LocalDateTime) row[7]);
+            flight.setArrivalTime((LocalDateTime) row[8]);
+            flight.setAircraftType((String) row[9]);
+            flight.setEconomyPrice((BigDecimal) row[10]);
+            flight.setPremiumEconomyPrice((BigDecimal) row[11]);
+            flight.setBusinessPrice((BigDecimal) row[12]);
+            flight.setFirstClassPrice((BigDecimal) row[13]);
+            flight.setEconomySeats((Integer) row[14]);
+            flight.setPremiumEconomySeats((Integer) row[15]);
+            flight.setBusinessSeats((Integer) row[16]);
+            flight.setFirstClassSeats((Integer) row[17]);
+            flight.setEconomyAvailable((Integer) row[18]);
+            flight.setPremiumEconomyAvailable((Integer) row[19]);
+            flight.setBusinessAvailable((Integer) row[20]);
+            flight.setFirstClassAvailable((Integer) row[21]);
+            flights[i] = flight;
+        }
+        return flights;
+    }
+
+    @Benchmark
+    public int hydrateAndScanAvailability() {
+        int open = 0;
+        for (Flight flight : hydrate()) {
+            if (flight.hasSeatsAvailable(TravelClass.ECONOMY, 1)) {
+                open++;
+            }
+        }
+        return open;
+    }
+}
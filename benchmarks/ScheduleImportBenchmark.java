@@ -0,0 +1,105 @@
+package com.smartwings.benchmark;
+
+import com.smartwings.model.Flight;
+import com.smartwings.model.TravelClass;
+import com.smartwings.repository.PooledIdAllocator;
+import com.smartwings.schedule.ScheduleImporter;
+
+import javax.persistence.Persistence;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Schedule Import Benchmark
+ * Wall-clock time to load a generated CSV schedule into the flights table
+ * through ScheduleImporter, so the bulk path can be checked against its
+ * target of a million flights in under a minute.
+ *
+ * Not a JMH benchmark: a load runs once against a real database. Put the
+ * JDBC driver on the classpath and create the flights table and
+ * flight_id_seq, or pass create-schema to have the smartwings persistence
+ * unit generate them, then run e.g.
+ * java ... ScheduleImportBenchmark jdbc:h2:./bench "VALUES NEXT VALUE FOR flight_id_seq" 1000000 100 create-schema
+ */
+public final class ScheduleImportBenchmark {
+
+    private ScheduleImportBenchmark() {}
+
+    public static void main(String[] args) throws IOException, SQLException {
+        if (args.length < 2) {
+            System.err.println("usage: ScheduleImportBenchmark <jdbc-url> <next-id-sql> [rows] [rows-per-statement]"
+                    + " [create-schema]");
+            return;
+        }
+        int size = args.length > 2 ? Integer.parseInt(args[2]) : 1_000_000;
+        int rowsPerStatement = args.length > 3 ? Integer.parseInt(args[3]) : 100;
+        if (args.length > 4 && args[4].equals("create-schema")) {
+            Persistence.generateSchema("smartwings", Map.of(
+                    "javax.persistence.jdbc.url", args[0],
+                    "javax.persistence.schema-generation.database.action", "drop-and-create"));
+        }
+
+        Path file = Files.createTempFile("schedule", ".csv");
+        try {
+            writeSchedule(file, size);
+            ScheduleImporter importer = new ScheduleImporter(ScheduleImporter.csv(),
+                    new PooledIdAllocator(args[1], Flight.ID_ALLOCATION_SIZE), rowsPerStatement, 10_000,
+                    Clock.systemUTC());
+            try (Connection connection = DriverManager.getConnection(args[0]);
+                 Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                long start = System.nanoTime();
+                ScheduleImporter.Result result = importer.importFrom(reader, connection);
+                double seconds = (System.nanoTime() - start) / 1e9;
+                System.out.printf("rows:                    %,d imported, %,d rejected%n",
+                        result.getImported(), result.getRejected());
+                System.out.printf("rows per statement:      %d%n", rowsPerStatement);
+                System.out.printf("elapsed:                 %.1f s (%,.0f rows/s)%n",
+                        seconds, result.getImported() / seconds);
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    static void writeSchedule(Path file, int size) throws IOException {
+        Random random = new Random(FlightFixtures.SEED);
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(String.join(",", ScheduleImporter.FIELDS));
+            writer.newLine();
+            for (int i = 0; i < size; i++) {
+                Flight flight = FlightFixtures.flight(i, random);
+                StringBuilder line = new StringBuilder(160)
+                        .append(flight.getFlightNumber()).append(',')
+                        .append(flight.getAirline()).append(',')
+                        .append(flight.getOriginAirport()).append(',')
+                        .append(flight.getOriginCity()).append(',')
+                        .append(flight.getDestinationAirport()).append(',')
+                        .append(flight.getDestinationCity()).append(',')
+                        .append(flight.getDepartureTime()).append(',')
+                        .append(flight.getArrivalTime()).append(',')
+                        .append(flight.getAircraftType());
+                for (TravelClass travelClass : TravelClass.values()) {
+                    BigDecimal price = flight.getPriceForClass(travelClass);
+                    line.append(',').append(price == null ? "" : price.toPlainString());
+                }
+                for (TravelClass travelClass : TravelClass.values()) {
+                    line.append(',').append(flight.getSeats(travelClass));
+                }
+                line.append(",,,");
+                writer.write(line.toString());
+                writer.newLine();
+            }
+        }
+    }
+}
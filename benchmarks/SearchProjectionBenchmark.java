@@ -0,0 +1,122 @@
+package com.smartwings.benchmark;
+
+import com.smartwings.model.Flight;
+import com.smartwings.model.FlightStatus;
+import com.smartwings.model.TravelClass;
+import com.smartwings.repository.FlightSearchRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Search Projection Benchmark
+ * Latency and retained heap per row of a large search result, loaded as
+ * FlightSearchResult projections and as managed Flight entities. Entities
+ * are measured with their persistence context still open, as they are while
+ * a request renders them, so their snapshots count.
+ *
+ * Not a JMH benchmark: it runs against a real database through a persistence
+ * unit, with the flights table loaded, e.g. by ScheduleImportBenchmark. Run
+ * with a fixed heap, e.g.
+ * java -Xms2g -Xmx2g ... SearchProjectionBenchmark smartwings NYC LAX 10000
+ */
+public final class SearchProjectionBenchmark {
+
+    private static final String ENTITY_JPQL = "SELECT f FROM Flight f "
+            + "WHERE f.originAirport = :origin AND f.destinationAirport = :destination "
+            + "AND f.departureTime >= :from AND f.departureTime < :to "
+            + "AND f.economyPrice IS NOT NULL AND f.economyAvailable >= :seats "
+            + "AND f.status <> :cancelled "
+            + "ORDER BY f.departureTime, f.id";
+
+    private static final LocalDateTime FROM = FlightFixtures.SCHEDULE_START;
+    private static final LocalDateTime TO = FROM.plusYears(1);
+    private static final int RUNS = 21;
+    private static final int FETCH_SIZE = 1_000;
+
+    private SearchProjectionBenchmark() {}
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("usage: SearchProjectionBenchmark <persistence-unit> [origin] [destination] [rows]");
+            return;
+        }
+        String origin = args.length > 1 ? args[1] : FlightFixtures.AIRPORTS[0];
+        String destination = args.length > 2 ? args[2] : FlightFixtures.AIRPORTS[1];
+        int rows = args.length > 3 ? Integer.parseInt(args[3]) : 10_000;
+
+        EntityManagerFactory factory = Persistence.createEntityManagerFactory(args[0]);
+        try {
+            Search projections = entityManager -> new FlightSearchRepository(entityManager, FETCH_SIZE)
+                    .search(origin, destination, FROM, TO, TravelClass.ECONOMY, 1, rows);
+            Search entities = entityManager -> entityManager.createQuery(ENTITY_JPQL, Flight.class)
+                    .setParameter("origin", origin)
+                    .setParameter("destination", destination)
+                    .setParameter("from", FROM)
+                    .setParameter("to", TO)
+                    .setParameter("seats", 1)
+                    .setParameter("cancelled", FlightStatus.CANCELLED)
+                    .setHint(FlightSearchRepository.FETCH_SIZE_HINT, FETCH_SIZE)
+                    .setMaxResults(rows)
+                    .getResultList();
+
+            report("projections", factory, projections);
+            report("entities", factory, entities);
+        } finally {
+            factory.close();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Search {
+        List<?> run(EntityManager entityManager);
+    }
+
+    private static void report(String name, EntityManagerFactory factory, Search search) {
+        // Latency, after the first runs have warmed up
+        long[] nanos = new long[RUNS];
+        int size = 0;
+        for (int warmUp = 0; warmUp < RUNS; warmUp++) {
+            time(factory, search);
+        }
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            size = time(factory, search);
+            nanos[run] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+
+        // Retained heap while the results and their persistence context are live
+        long baseline = usedHeap();
+        EntityManager entityManager = factory.createEntityManager();
+        List<?> results = search.run(entityManager);
+        long retained = usedHeap() - baseline;
+        entityManager.close();
+
+        System.out.printf("%-12s rows %,d  median %.1f ms  p90 %.1f ms  heap %,d bytes/row%n", name, size,
+                nanos[RUNS / 2] / 1e6, nanos[RUNS * 9 / 10] / 1e6, results.isEmpty() ? 0 : retained / results.size());
+    }
+
+    private static int time(EntityManagerFactory factory, Search search) {
+        EntityManager entityManager = factory.createEntityManager();
+        try {
+            return search.run(entityManager).size();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private static long usedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,105 @@
+package com.smartwings.benchmark;
+
+import com.smartwings.inventory.SeatInventory;
+import com.smartwings.model.Flight;
+import com.smartwings.model.TravelClass;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Seat Reservation Benchmark
+ * Reserve/release pairs on a single entity and through the SeatInventory,
+ * uncontended and with every core hitting either one hot flight or a spread
+ * of flights. The inventory writes back on its own thread, as in production,
+ * so the reserving threads pay only for the counter and the coalescing flag,
+ * not for copying into the entity under its monitor.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SeatReservationBenchmark {
+
+    @State(Scope.Thread)
+    public static class EntityState {
+        Flight flight;
+
+        @Setup
+        public void setUp() {
+            flight = FlightFixtures.schedule(1)[0];
+            flight.setAvailable(TravelClass.ECONOMY, 100);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class InventoryState {
+        @Param({"1", "1024"})
+        public int flights;
+
+        SeatInventory inventory;
+        ExecutorService writeBackExecutor;
+
+        @Setup
+        public void setUp() {
+            writeBackExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "seat-write-back");
+                thread.setDaemon(true);
+                return thread;
+            });
+            inventory = new SeatInventory(writeBackExecutor, flight -> {});
+            for (Flight flight : FlightFixtures.schedule(flights)) {
+                flight.setSeats(TravelClass.ECONOMY, 1_000_000);
+                flight.setAvailable(TravelClass.ECONOMY, 500_000);
+                inventory.register(flight);
+            }
+        }
+
+        @TearDown
+        public void tearDown() throws InterruptedException {
+            writeBackExecutor.shutdown();
+            writeBackExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+
+        Long pick() {
+            return flights == 1 ? 1L : 1L + ThreadLocalRandom.current().nextInt(flights);
+        }
+    }
+
+    @Benchmark
+    public boolean entityReserveReleaseEnum(EntityState state) {
+        return state.flight.reserveSeats(TravelClass.ECONOMY, 2)
+                & state.flight.releaseSeats(TravelClass.ECONOMY, 2);
+    }
+
+    @Benchmark
+    public boolean entityReserveReleaseString(EntityState state) {
+        return state.flight.reserveSeats("economy", 2)
+                & state.flight.releaseSeats("economy", 2);
+    }
+
+    @Benchmark
+    public boolean inventoryReserveRelease(InventoryState state) {
+        Long flightId = state.pick();
+        return state.inventory.reserve(flightId, TravelClass.ECONOMY, 2)
+                & state.inventory.release(flightId, TravelClass.ECONOMY, 2);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public boolean inventoryReserveReleaseContended(InventoryState state) {
+        Long flightId = state.pick();
+        return state.inventory.reserve(flightId, TravelClass.ECONOMY, 2)
+                & state.inventory.release(flightId, TravelClass.ECONOMY, 2);
+    }
+}
@@ -0,0 +1,66 @@
+package com.smartwings;
+
+import com.smartwings.model.Flight;
+import com.smartwings.model.TravelClass;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Test Database
+ * The smartwings persistence unit on a private in-memory H2 database, with
+ * the schema generated from the entities
+ */
+public final class TestDatabase {
+
+    private TestDatabase() {}
+
+    /**
+     * JDBC URL of the database open(name) creates, for plain JDBC access
+     * while the factory is open
+     */
+    public static String jdbcUrl(String name) {
+        return "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000";
+    }
+
+    public static EntityManagerFactory open(String name) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("javax.persistence.jdbc.driver", "org.h2.Driver");
+        properties.put("javax.persistence.jdbc.url", jdbcUrl(name));
+        properties.put("javax.persistence.jdbc.user", "sa");
+        properties.put("javax.persistence.jdbc.password", "");
+        properties.put("javax.persistence.schema-generation.database.action", "drop-and-create");
+        properties.put("hibernate.connection.pool_size", "80");
+        return Persistence.createEntityManagerFactory("smartwings", properties);
+    }
+
+    public static Flight flight(String flightNumber, LocalDateTime departure, int economySeats) {
+        Flight flight = new Flight(flightNumber, "SmartWings", "NYC", "New York", "LAX", "Los Angeles",
+                departure, departure.plusHours(6), "A320", new BigDecimal("199.00"));
+        flight.setSeats(TravelClass.ECONOMY, economySeats);
+        return flight;
+    }
+
+    /**
+     * Runs work in its own entity manager and transaction, committing it
+     */
+    public static void inTransaction(EntityManagerFactory factory, Consumer<EntityManager> work) {
+        EntityManager entityManager = factory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            work.accept(entityManager);
+            entityManager.getTransaction().commit();
+        } finally {
+            if (entityManager.getTransaction().isActive()) {
+                entityManager.getTransaction().rollback();
+            }
+            entityManager.close();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.smartwings.inventory;
+
+import com.smartwings.TestDatabase;
+import com.smartwings.model.Flight;
+import com.smartwings.model.TravelClass;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SeatHoldManagerTest {
+
+    private static final LocalDateTime DEPARTURE = LocalDateTime.of(2026, 5, 1, 7, 0);
+
+    private final SeatInventory inventory = new SeatInventory(Runnable::run, flight -> {});
+
+    @Test
+    void holdsExpireAfterTheirFlightIsUnregistered() {
+        Flight departed = register(1L);
+        register(2L);
+        SeatHoldManager holds = new SeatHoldManager(inventory, 8, 100, 0);
+        for (int i = 0; i < 4; i++) {
+            assertNotEquals(SeatHoldManager.NO_HOLD, holds.hold(1L, TravelClass.ECONOMY, 1, 500, 0));
+        }
+        // Shares the expiring bucket with the orphaned holds
+        assertNotEquals(SeatHoldManager.NO_HOLD, holds.hold(2L, TravelClass.ECONOMY, 3, 500, 0));
+        inventory.unregister(1L);
+
+        assertEquals(5, holds.advance(1000));
+        assertEquals(0, holds.getOpenHolds());
+        assertEquals(4, holds.getOrphanedReleases());
+        assertEquals(100, inventory.available(2L, TravelClass.ECONOMY));
+
+        // The freed slots take new holds once the flight is back
+        inventory.register(departed);
+        for (int i = 0; i < 8; i++) {
+            assertNotEquals(SeatHoldManager.NO_HOLD, holds.hold(1L, TravelClass.ECONOMY, 1, 500, 1000));
+        }
+        assertEquals(8, holds.getOpenHolds());
+    }
+
+    @Test
+    void cancelFreesTheHoldAfterTheFlightIsUnregistered() {
+        register(1L);
+        SeatHoldManager holds = new SeatHoldManager(inventory, 1, 100, 0);
+        long hold = holds.hold(1L, TravelClass.ECONOMY, 2, 500, 0);
+        inventory.unregister(1L);
+
+        assertTrue(holds.cancel(hold));
+        assertEquals(0, holds.getOpenHolds());
+        assertEquals(1, holds.getOrphanedReleases());
+        assertEquals(0, holds.advance(1000));
+    }
+
+    private Flight register(long id) {
+        Flight flight = TestDatabase.flight("SW" + id, DEPARTURE, 100);
+        flight.setId(id);
+        flight.setAvailable(TravelClass.ECONOMY, 100);
+        inventory.register(flight);
+        return flight;
+    }
+}
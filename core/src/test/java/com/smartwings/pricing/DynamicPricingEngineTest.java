@@ -0,0 +1,83 @@
+package com.smartwings.pricing;
+
+import com.smartwings.TestDatabase;
+import com.smartwings.model.Flight;
+import com.smartwings.model.TravelClass;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DynamicPricingEngineTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 6, 1, 12, 0);
+
+    // Doubles the fare once half the cabin is sold
+    private static final FarePolicy POLICY = new LadderFarePolicy(Map.of(TravelClass.ECONOMY,
+            new FareLadder(new int[] {50}, new int[] {10_000, 20_000}, new int[0], new int[] {10_000})));
+
+    private static DynamicPricingEngine engineAt(LocalDateTime time) {
+        return new DynamicPricingEngine(POLICY, Clock.fixed(time.toInstant(ZoneOffset.UTC), ZoneOffset.UTC),
+                ZoneOffset.UTC);
+    }
+
+    private static Flight flight(long id, LocalDateTime departure) {
+        Flight flight = TestDatabase.flight("SW" + id, departure, 100);
+        flight.setId(id);
+        flight.setAvailable(TravelClass.ECONOMY, 100);
+        return flight;
+    }
+
+    @Test
+    void baseFareChangeIsPricedWithoutInvalidation() {
+        DynamicPricingEngine engine = engineAt(NOW);
+        Flight flight = flight(1, NOW.plusDays(3));
+        assertEquals(19_900, engine.fareFor(flight, TravelClass.ECONOMY));
+
+        flight.setFare(TravelClass.ECONOMY, 25_000);
+        assertEquals(25_000, engine.fareFor(flight, TravelClass.ECONOMY));
+
+        flight.setAvailable(TravelClass.ECONOMY, 40);
+        assertEquals(50_000, engine.fareFor(flight, TravelClass.ECONOMY));
+    }
+
+    @Test
+    void departedFlightsLeaveTheMemo() {
+        SettableClock clock = new SettableClock(NOW);
+        DynamicPricingEngine engine = new DynamicPricingEngine(POLICY, clock, ZoneOffset.UTC);
+        Flight soon = flight(1, NOW.plusHours(2));
+        Flight later = flight(2, NOW.plusDays(2));
+        engine.fareFor(soon, TravelClass.ECONOMY);
+        engine.fareFor(later, TravelClass.ECONOMY);
+        engine.fareFor(flight(3, NOW.minusHours(1)), TravelClass.ECONOMY);
+        assertEquals(2, engine.memoizedFlights());
+
+        // The next lookup after the sweep interval drops the departed flight
+        clock.time = NOW.plusHours(3);
+        engine.fareFor(later, TravelClass.ECONOMY);
+        assertEquals(1, engine.memoizedFlights());
+    }
+
+    private static final class SettableClock extends Clock {
+        LocalDateTime time;
+
+        SettableClock(LocalDateTime time) {
+            this.time = time;
+        }
+
+        @Override
+        public ZoneId getZone() { return ZoneOffset.UTC; }
+
+        @Override
+        public Clock withZone(ZoneId zone) { throw new UnsupportedOperationException(); }
+
+        @Override
+        public Instant instant() { return time.toInstant(ZoneOffset.UTC); }
+    }
+}
@@ -0,0 +1,112 @@
+package com.smartwings.repository;
+
+import com.smartwings.TestDatabase;
+import com.smartwings.model.Flight;
+import com.smartwings.model.TravelClass;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FlightSeatRepositoryTest {
+
+    private static final int THREADS = 64;
+    private static final int ATTEMPTS_PER_THREAD = 20;
+    private static final int SEATS = 150;
+
+    private static EntityManagerFactory factory;
+
+    @BeforeAll
+    static void openDatabase() {
+        factory = TestDatabase.open("seats");
+    }
+
+    @AfterAll
+    static void closeDatabase() {
+        factory.close();
+    }
+
+    private static Long persist(Flight flight) {
+        TestDatabase.inTransaction(factory, entityManager -> entityManager.persist(flight));
+        return flight.getId();
+    }
+
+    private static Flight load(Long flightId) {
+        EntityManager entityManager = factory.createEntityManager();
+        try {
+            return entityManager.find(Flight.class, flightId);
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @Test
+    void concurrentReservationsNeverOversell() throws Exception {
+        Long flightId = persist(TestDatabase.flight("SW100", LocalDateTime.of(2026, 3, 1, 8, 0), SEATS));
+
+        // Far more requests than seats, all released at once
+        AtomicInteger reserved = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                workers.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                        TestDatabase.inTransaction(factory, entityManager -> {
+                            if (new FlightSeatRepository(entityManager).reserveSeats(flightId, TravelClass.ECONOMY, 1)) {
+                                reserved.incrementAndGet();
+                            }
+                        });
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Flight flight = load(flightId);
+        assertEquals(SEATS, reserved.get());
+        assertEquals(0, flight.getAvailable(TravelClass.ECONOMY));
+        assertEquals(SEATS, flight.getVersion().intValue());
+    }
+
+    @Test
+    void releaseCannotExceedCapacity() {
+        Long flightId = persist(TestDatabase.flight("SW200", LocalDateTime.of(2026, 3, 2, 8, 0), 2));
+        boolean[] results = new boolean[3];
+
+        TestDatabase.inTransaction(factory, entityManager -> {
+            FlightSeatRepository repository = new FlightSeatRepository(entityManager);
+            results[0] = repository.reserveSeats(flightId, TravelClass.ECONOMY, 2);
+            results[1] = repository.releaseSeats(flightId, TravelClass.ECONOMY, 3);
+            results[2] = repository.releaseSeats(flightId, TravelClass.ECONOMY, 2);
+        });
+
+        assertTrue(results[0]);
+        assertFalse(results[1]);
+        assertTrue(results[2]);
+        assertEquals(2, load(flightId).getAvailable(TravelClass.ECONOMY));
+    }
+}
@@ -0,0 +1,72 @@
+package com.smartwings.schedule;
+
+import com.smartwings.TestDatabase;
+import com.smartwings.model.CodeDictionary;
+import com.smartwings.model.Flight;
+import com.smartwings.model.TravelClass;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColumnarScheduleTest {
+
+    private static final LocalDateTime DEPARTURE = LocalDateTime.of(2026, 5, 1, 7, 0);
+
+    @Test
+    void removedRowIsClearedAndReused() {
+        ColumnarSchedule schedule = new ColumnarSchedule(4);
+        for (long id = 1; id <= 4; id++) {
+            schedule.put(flight(id));
+        }
+        int row = schedule.rowOf(2L);
+
+        assertTrue(schedule.remove(2L));
+        assertFalse(schedule.remove(2L));
+        assertEquals(-1, schedule.rowOf(2L));
+        assertNull(schedule.materialize(row).getFlightNumber());
+        int[] rows = new int[4];
+        int origin = CodeDictionary.AIRPORTS.find("NYC");
+        int destination = CodeDictionary.AIRPORTS.find("LAX");
+        assertEquals(3, schedule.select(origin, destination, Long.MIN_VALUE, Long.MAX_VALUE,
+                TravelClass.ECONOMY, 1, 0, rows));
+
+        // The full store takes a new flight into the freed row
+        assertEquals(row, schedule.put(flight(5L)));
+        assertEquals(4, schedule.size());
+        for (long id : new long[] {1L, 3L, 4L, 5L}) {
+            assertEquals(id, schedule.id(schedule.rowOf(id)));
+        }
+    }
+
+    @Test
+    void churnKeepsEveryStoredFlightReachable() {
+        // Removing and adding many more flights than the table has slots
+        // leaves tombstones everywhere unless they are reused and rebuilt
+        ColumnarSchedule schedule = new ColumnarSchedule(64);
+        for (long id = 1; id <= 64; id++) {
+            schedule.put(flight(id));
+        }
+        for (long id = 65; id <= 10_000; id++) {
+            assertTrue(schedule.remove(id - 64));
+            schedule.put(flight(id));
+            assertEquals(-1, schedule.rowOf(id - 64));
+        }
+        assertEquals(64, schedule.size());
+        for (long id = 10_000 - 63; id <= 10_000; id++) {
+            assertEquals(id, schedule.id(schedule.rowOf(id)));
+        }
+        assertEquals(-1, schedule.rowOf(1L));
+    }
+
+    private static Flight flight(long id) {
+        Flight flight = TestDatabase.flight("SW" + id, DEPARTURE.plusMinutes(id), 150);
+        flight.setId(id);
+        flight.setAvailable(TravelClass.ECONOMY, 150);
+        return flight;
+    }
+}
@@ -0,0 +1,185 @@
+package com.smartwings.schedule;
+
+import com.smartwings.TestDatabase;
+import com.smartwings.model.Flight;
+import com.smartwings.model.TravelClass;
+import com.smartwings.repository.FlightSeatRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class FlightChangeFeedTest {
+
+    private static final int FLIGHTS = 12;
+    private static final Duration COMMIT_LAG = Duration.ofMinutes(1);
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    private EntityManagerFactory factory;
+    private ExecutorService executor;
+    private final List<Long> flightIds = new ArrayList<>();
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        factory = TestDatabase.open("changes" + DATABASES.incrementAndGet());
+        executor = Executors.newFixedThreadPool(2);
+        LocalDateTime departure = LocalDateTime.of(2026, 4, 1, 6, 0);
+        TestDatabase.inTransaction(factory, entityManager -> {
+            for (int i = 0; i < FLIGHTS; i++) {
+                Flight flight = TestDatabase.flight("SW" + (300 + i), departure.plusHours(i), 150);
+                entityManager.persist(flight);
+                flightIds.add(flight.getId());
+            }
+        });
+        now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        factory.close();
+    }
+
+    // A seat change stamped seconds after the test's start, in its own transaction
+    private EntityManager beginReservation(Long flightId, int seconds) {
+        EntityManager entityManager = factory.createEntityManager();
+        entityManager.getTransaction().begin();
+        Clock clock = Clock.fixed(now.plusSeconds(seconds).atZone(ZoneId.systemDefault()).toInstant(),
+                ZoneId.systemDefault());
+        assertTrue(new FlightSeatRepository(entityManager, clock).reserveSeats(flightId, TravelClass.ECONOMY, 1));
+        return entityManager;
+    }
+
+    private void reserve(Long flightId, int seconds) {
+        EntityManager entityManager = beginReservation(flightId, seconds);
+        entityManager.getTransaction().commit();
+        entityManager.close();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Timed out waiting for the subscribers");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static void record(List<String> received, List<Flight> batch) {
+        for (Flight flight : batch) {
+            received.add(flight.getId() + "@" + flight.getVersion());
+        }
+    }
+
+    @Test
+    void lateCommitsAndSlowSubscribersGetEveryVersionOnce() throws InterruptedException {
+        // Small pages and a one-batch queue so the slow subscriber holds the poller back
+        FlightChangeFeed feed = new FlightChangeFeed(factory, 4, 1, COMMIT_LAG, null);
+        List<String> slow = Collections.synchronizedList(new ArrayList<>());
+        List<String> fast = Collections.synchronizedList(new ArrayList<>());
+        feed.subscribe(batch -> {
+            try {
+                Thread.sleep(25);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            record(slow, batch);
+        }, executor);
+        feed.subscribe(batch -> record(fast, batch), executor);
+
+        Set<String> expected = new HashSet<>();
+        for (Long flightId : flightIds) {
+            expected.add(flightId + "@0");
+        }
+        assertEquals(FLIGHTS, feed.poll());
+
+        // A transaction stamps its row, then commits only after a later one
+        // has been read and moved the watermark past it
+        Long late = flightIds.get(0);
+        Long early = flightIds.get(1);
+        EntityManager lateTransaction = beginReservation(late, 10);
+        reserve(early, 20);
+        expected.add(early + "@1");
+        assertEquals(1, feed.poll());
+        assertEquals(now.plusSeconds(20), feed.getWatermark());
+
+        lateTransaction.getTransaction().commit();
+        lateTransaction.close();
+        expected.add(late + "@1");
+        // Re-reads the lag window: the late row is new, the other is not
+        assertEquals(1, feed.poll());
+
+        // Every flight changes twice more, some polls seeing several versions
+        int second = 30;
+        for (int round = 2; round <= 3; round++) {
+            for (Long flightId : flightIds) {
+                reserve(flightId, second++);
+                int version = flightId.equals(late) || flightId.equals(early) ? round : round - 1;
+                expected.add(flightId + "@" + version);
+            }
+            feed.poll();
+        }
+        assertEquals(0, feed.poll());
+
+        await(() -> slow.size() >= expected.size() && fast.size() >= expected.size());
+        for (List<String> received : List.of(slow, fast)) {
+            assertEquals(expected.size(), received.size(), "duplicate deliveries: " + received);
+            assertEquals(expected, new HashSet<>(received));
+        }
+    }
+
+    @Test
+    void failedBatchParksTheSubscriberUntilResumed() throws InterruptedException {
+        FlightChangeFeed feed = new FlightChangeFeed(factory, 100, 4, COMMIT_LAG, null);
+        List<String> received = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger calls = new AtomicInteger();
+        FlightChangeFeed.Subscriber subscriber = feed.subscribe(batch -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new IllegalStateException("index unavailable");
+            }
+            record(received, batch);
+        }, executor);
+
+        feed.poll();
+        await(subscriber::isParked);
+        reserve(flightIds.get(0), 10);
+        feed.poll();
+
+        // Nothing overtakes the failed batch while parked
+        assertEquals(1, subscriber.getFailedBatches());
+        assertEquals(2, subscriber.getPendingBatches());
+        assertTrue(received.isEmpty());
+
+        subscriber.resume();
+        await(() -> subscriber.getPendingBatches() == 0);
+        assertFalse(subscriber.isParked());
+        assertEquals(2, subscriber.getDeliveredBatches());
+        assertEquals(FLIGHTS + 1, received.size());
+        assertEquals(flightIds.get(0) + "@1", received.get(FLIGHTS));
+    }
+}
@@ -0,0 +1,107 @@
+package com.smartwings.schedule;
+
+import com.smartwings.TestDatabase;
+import com.smartwings.model.Flight;
+import com.smartwings.repository.PooledIdAllocator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScheduleImporterTest {
+
+    private static final String HEADER = String.join(",", ScheduleImporter.FIELDS);
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    private EntityManagerFactory factory;
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        String name = "import" + DATABASES.incrementAndGet();
+        factory = TestDatabase.open(name);
+        connection = DriverManager.getConnection(TestDatabase.jdbcUrl(name), "sa", "");
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        connection.close();
+        factory.close();
+    }
+
+    private static String row(String flightNumber, int day) {
+        return flightNumber + ",SmartWings,NYC,New York,LAX,Los Angeles,"
+                + "2026-06-" + (10 + day) + " 08:00,2026-06-" + (10 + day) + " 14:00,A320,"
+                + "199.00,,899.00,,150,0,20,0,,,";
+    }
+
+    private ScheduleImporter.Result importCsv(String... lines) throws IOException, SQLException {
+        // Two rows per statement and commit, so files span several of each
+        ScheduleImporter importer = new ScheduleImporter(ScheduleImporter.csv(),
+                new PooledIdAllocator("VALUES NEXT VALUE FOR flight_id_seq", Flight.ID_ALLOCATION_SIZE), 2, 2,
+                Clock.systemDefaultZone());
+        return importer.importFrom(new StringReader(String.join("\n", lines)), connection);
+    }
+
+    private long flightCount() throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT COUNT(*) FROM flights")) {
+            rows.next();
+            return rows.getLong(1);
+        }
+    }
+
+    @Test
+    void importsValidRowsAndRejectsDuplicateFlightNumbers() throws Exception {
+        ScheduleImporter.Result result = importCsv(HEADER,
+                row("SW700", 1), row("SW701", 2), row("SW700", 3), row("SW702", 4), row("SW703", 5));
+
+        assertEquals(4, result.getImported());
+        assertEquals(1, result.getRejected());
+        assertTrue(result.getErrors().get(0).startsWith("line 4: "), result.getErrors().toString());
+        assertEquals(4, flightCount());
+    }
+
+    @Test
+    void reimportingLoadsOnlyTheMissingRows() throws Exception {
+        // As if an earlier run stopped after its first commit
+        importCsv(HEADER, row("SW710", 1), row("SW711", 2));
+
+        ScheduleImporter.Result result = importCsv(HEADER,
+                row("SW710", 1), row("SW711", 2), row("SW712", 3), row("SW713", 4), row("SW714", 5));
+
+        assertEquals(3, result.getImported());
+        assertEquals(2, result.getRejected());
+        assertEquals(5, flightCount());
+
+        ScheduleImporter.Result again = importCsv(HEADER, row("SW712", 3), row("SW714", 5));
+        assertEquals(0, again.getImported());
+        assertEquals(2, again.getRejected());
+        assertEquals(5, flightCount());
+    }
+
+    @Test
+    void onlyTheCsvParserSkipsHeaders() {
+        String[] fields = new String[ScheduleImporter.FIELDS.size()];
+        assertEquals(0, ScheduleImporter.csv().parse(HEADER, fields));
+        assertEquals(ScheduleImporter.FIELDS.size(), ScheduleImporter.csv().parse(row("SW720", 1), fields));
+
+        int[] widths = new int[ScheduleImporter.FIELDS.size()];
+        Arrays.fill(widths, 20);
+        assertEquals(ScheduleImporter.FIELDS.size(), ScheduleImporter.fixedWidth(widths).parse("flight_number", fields));
+    }
+}
@@ -0,0 +1,111 @@
+package com.smartwings.schedule;
+
+import com.smartwings.TestDatabase;
+import com.smartwings.model.Flight;
+import com.smartwings.model.TravelClass;
+import com.smartwings.repository.FlightSeatRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScheduleSnapshotTest {
+
+    private static final LocalDateTime DEPARTURE = LocalDateTime.of(2026, 5, 1, 7, 0);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void fullStoreKeepsItsLastColumnIntact() throws IOException {
+        // Every byte of the last column (versions) is data when the store is full
+        ColumnarSchedule schedule = new ColumnarSchedule(3);
+        for (int i = 0; i < 3; i++) {
+            Flight flight = TestDatabase.flight("SW" + (500 + i), DEPARTURE.plusHours(i), 150);
+            flight.setId(100L + i);
+            flight.setUpdatedAt(DEPARTURE.minusDays(1).plusMinutes(i));
+            flight.setVersion(0x0102030405060708L + i);
+            schedule.put(flight);
+        }
+        Path path = directory.resolve("full.snapshot");
+        ScheduleSnapshot.write(schedule, path);
+
+        ColumnarSchedule opened = ScheduleSnapshot.open(path).getSchedule();
+        assertEquals(3, opened.size());
+        for (int i = 0; i < 3; i++) {
+            int row = opened.rowOf(100L + i);
+            assertEquals(0x0102030405060708L + i, opened.version(row));
+        }
+    }
+
+    @Test
+    void catchUpPicksUpRowsCommittedBehindTheWatermark() throws IOException {
+        EntityManagerFactory factory = TestDatabase.open("snapshot");
+        try {
+            List<Long> ids = new ArrayList<>();
+            TestDatabase.inTransaction(factory, entityManager -> {
+                for (int i = 0; i < 3; i++) {
+                    Flight flight = TestDatabase.flight("SW" + (600 + i), DEPARTURE.plusHours(i), 150);
+                    entityManager.persist(flight);
+                    ids.add(flight.getId());
+                }
+            });
+            ColumnarSchedule schedule = new ColumnarSchedule(10);
+            EntityManager reader = factory.createEntityManager();
+            for (Long id : ids) {
+                schedule.put(reader.find(Flight.class, id));
+            }
+            reader.close();
+            Path path = directory.resolve("schedule.snapshot");
+            ScheduleSnapshot.write(schedule, path);
+            ScheduleSnapshot snapshot = ScheduleSnapshot.open(path);
+
+            // The first change is stamped earlier but commits after the
+            // second has been caught up
+            LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+            EntityManager late = factory.createEntityManager();
+            late.getTransaction().begin();
+            new FlightSeatRepository(late, clockAt(now.plusSeconds(10))).reserveSeats(ids.get(0), TravelClass.ECONOMY, 1);
+            TestDatabase.inTransaction(factory, entityManager ->
+                    new FlightSeatRepository(entityManager, clockAt(now.plusSeconds(20)))
+                            .reserveSeats(ids.get(1), TravelClass.ECONOMY, 1));
+
+            EntityManager entityManager = factory.createEntityManager();
+            try {
+                assertEquals(1, snapshot.catchUp(entityManager, 2, Duration.ofMinutes(1)));
+                assertEquals(now.plusSeconds(20), snapshot.getWatermark());
+
+                late.getTransaction().commit();
+                late.close();
+                // The re-read window holds both changes; only the late one is new
+                assertEquals(1, snapshot.catchUp(entityManager, 2, Duration.ofMinutes(1)));
+                assertTrue(entityManager.isOpen());
+            } finally {
+                entityManager.close();
+            }
+            ColumnarSchedule caughtUp = snapshot.getSchedule();
+            assertEquals(1, caughtUp.version(caughtUp.rowOf(ids.get(0))));
+            assertEquals(149, caughtUp.available(caughtUp.rowOf(ids.get(0)), TravelClass.ECONOMY));
+            assertEquals(now.plusSeconds(20), snapshot.getWatermark());
+        } finally {
+            factory.close();
+        }
+    }
+
+    private static Clock clockAt(LocalDateTime time) {
+        return Clock.fixed(time.atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault());
+    }
+}
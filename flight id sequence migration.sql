@@ -0,0 +1,35 @@
+-- Flight id sequence migration (PostgreSQL)
+-- Moves flights.id from an identity column to the pooled flight_id_seq
+-- sequence used by the Flight mapping and the bulk schedule importer.
+--
+-- INCREMENT BY must equal Flight.ID_ALLOCATION_SIZE (50). The sequence
+-- starts one allocation past the highest existing id: the pooled optimizer
+-- treats each value V as the top of the block V - 49 .. V, so the first
+-- block begins right after the existing rows.
+--
+-- Stop the application first: an instance still generating identity ids
+-- would not see the sequence.
+
+BEGIN;
+
+LOCK TABLE flights IN EXCLUSIVE MODE;
+
+ALTER TABLE flights ALTER COLUMN id DROP IDENTITY IF EXISTS;
+-- Tables created with bigserial keep a column default instead
+ALTER TABLE flights ALTER COLUMN id DROP DEFAULT;
+
+CREATE SEQUENCE flight_id_seq INCREMENT BY 50 MINVALUE 1;
+SELECT setval('flight_id_seq', COALESCE((SELECT MAX(id) FROM flights), 0) + 50, false);
+
+-- Plain SQL inserts that omit the id still work, at the cost of one
+-- 50-id block per row; bulk loads should draw ids in blocks instead
+ALTER TABLE flights ALTER COLUMN id SET DEFAULT nextval('flight_id_seq');
+ALTER SEQUENCE flight_id_seq OWNED BY flights.id;
+
+COMMIT;
+
+-- Rollback, while no pooled ids above the identity's range are relied on:
+--   ALTER TABLE flights ALTER COLUMN id DROP DEFAULT;
+--   DROP SEQUENCE flight_id_seq;
+--   ALTER TABLE flights ALTER COLUMN id ADD GENERATED BY DEFAULT AS IDENTITY;
+--   SELECT setval(pg_get_serial_sequence('flights', 'id'), (SELECT MAX(id) FROM flights));
@@ -4,6 +4,7 @@ import javax.persistence.*;
 import javax.validation.constraints.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 
@@ -12,11 +13,27 @@ import java.util.Objects;
  * Represents a flight in the airline system
  */
 @Entity
-@Table(name = "flights")
+@Table(name = "flights", indexes = @Index(name = "idx_flights_updated_at_id", columnList = "updated_at, id"))
+@Access(AccessType.FIELD)
 public class Flight {
     
+    private static final int ECONOMY = TravelClass.ECONOMY.ordinal();
+    private static final int PREMIUM_ECONOMY = TravelClass.PREMIUM_ECONOMY.ordinal();
+    private static final int BUSINESS = TravelClass.BUSINESS.ordinal();
+    private static final int FIRST = TravelClass.FIRST.ordinal();
+    
+    /**
+     * Ids reserved per round trip to flight_id_seq. Must equal the sequence's
+     * INCREMENT BY; a deployment can change both together, overriding the
+     * generator in an orm.xml mapping file.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+    
+    // Pooled sequence ids: unlike IDENTITY, the id is known before the
+    // INSERT, so the provider can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "flight_id")
+    @SequenceGenerator(name = "flight_id", sequenceName = "flight_id_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
     
     @NotBlank(message = "Flight number is required")
@@ -24,30 +41,23 @@ public class Flight {
     @Column(name = "flight_number", unique = true, nullable = false)
     private String flightNumber;
     
-    @NotBlank(message = "Airline is required")
-    @Size(max = 50, message = "Airline name must be at most 50 characters")
-    @Column(name = "airline", nullable = false)
-    private String airline;
+    // Airline, airport and city codes as CodeDictionary ids, so flights
+    // share one copy of each string. Mapped to their columns through the
+    // property accessors below.
+    @Transient
+    private int airlineId = CodeDictionary.NONE;
     
-    @NotBlank(message = "Origin airport is required")
-    @Size(max = 10, message = "Origin airport code must be at most 10 characters")
-    @Column(name = "origin_airport", nullable = false)
-    private String originAirport;
+    @Transient
+    private int originAirportId = CodeDictionary.NONE;
     
-    @NotBlank(message = "Origin city is required")
-    @Size(max = 100, message = "Origin city must be at most 100 characters")
-    @Column(name = "origin_city", nullable = false)
-    private String originCity;
+    @Transient
+    private int originCityId = CodeDictionary.NONE;
     
-    @NotBlank(message = "Destination airport is required")
-    @Size(max = 10, message = "Destination airport code must be at most 10 characters")
-    @Column(name = "destination_airport", nullable = false)
-    private String destinationAirport;
+    @Transient
+    private int destinationAirportId = CodeDictionary.NONE;
     
-    @NotBlank(message = "Destination city is required")
-    @Size(max = 100, message = "Destination city must be at most 100 characters")
-    @Column(name = "destination_city", nullable = false)
-    private String destinationCity;
+    @Transient
+    private int destinationCityId = CodeDictionary.NONE;
     
     @NotNull(message = "Departure time is required")
     @Column(name = "departure_time", nullable = false)
@@ -57,44 +67,28 @@ public class Flight {
     @Column(name = "arrival_time", nullable = false)
     private LocalDateTime arrivalTime;
     
-    @NotBlank(message = "Aircraft type is required")
-    @Size(max = 50, message = "Aircraft type must be at most 50 characters")
-    @Column(name = "aircraft_type", nullable = false)
-    private String aircraftType;
-    
-    @NotNull(message = "Economy price is required")
-    @DecimalMin(value = "0.0", inclusive = false, message = "Economy price must be greater than 0")
-    @Column(name = "economy_price", precision = 10, scale = 2, nullable = false)
-    private BigDecimal economyPrice;
-    
-    @DecimalMin(value = "0.0", inclusive = false, message = "Business price must be greater than 0")
-    @Column(name = "business_price", precision = 10, scale = 2)
-    private BigDecimal businessPrice;
-    
-    @DecimalMin(value = "0.0", inclusive = false, message = "First class price must be greater than 0")
-    @Column(name = "first_class_price", precision = 10, scale = 2)
-    private BigDecimal firstClassPrice;
-    
-    @Min(value = 1, message = "Economy seats must be at least 1")
-    @Column(name = "economy_seats", nullable = false)
-    private Integer economySeats;
-    
-    @Min(value = 0, message = "Business seats cannot be negative")
-    @Column(name = "business_seats")
-    private Integer businessSeats = 0;
+    // Shared per aircraft type; mapped to aircraft_type through the
+    // property accessor below
+    @Transient
+    private AircraftLayout aircraftLayout;
     
-    @Min(value = 0, message = "First class seats cannot be negative")
-    @Column(name = "first_class_seats")
-    private Integer firstClassSeats = 0;
+    // Per-cabin fares (in Money minor units) and seat counts, indexed by
+    // TravelClass ordinal. Mapped to their columns through the property
+    // accessors below.
+    @Transient
+    private final long[] fares = unpriced();
     
-    @Column(name = "economy_available")
-    private Integer economyAvailable;
+    // Decimal form of each fare, built on first read and dropped when the
+    // fare changes, so the price getters (called on every dirty check) do
+    // not allocate. Created lazily to keep unread flights small.
+    @Transient
+    private BigDecimal[] prices;
     
-    @Column(name = "business_available")
-    private Integer businessAvailable;
+    @Transient
+    private final int[] seats = new int[TravelClass.COUNT];
     
-    @Column(name = "first_class_available")
-    private Integer firstClassAvailable;
+    @Transient
+    private final int[] available = new int[TravelClass.COUNT];
     
     @Enumerated(EnumType.STRING)
     @Column(name = "status", nullable = false)
@@ -118,25 +112,32 @@ public class Flight {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version = 0L;
+    
     // Relationships
     @OneToMany(mappedBy = "flight", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Booking> bookings;
     
     // Lifecycle methods
+    // Validation runs here through FlightValidator, without reflection;
+    // provider-driven Bean Validation is off (validation-mode NONE in
+    // persistence.xml) so a flight is not validated twice
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
         
         // Set available seats equal to total seats initially
-        economyAvailable = economySeats;
-        businessAvailable = businessSeats;
-        firstClassAvailable = firstClassSeats;
+        System.arraycopy(seats, 0, available, 0, TravelClass.COUNT);
+        FlightValidator.requireValid(this);
     }
     
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        FlightValidator.requireValid(this);
     }
     
     // Constructors
@@ -146,70 +147,72 @@ public class Flight {
                   String destinationAirport, String destinationCity, LocalDateTime departureTime,
                   LocalDateTime arrivalTime, String aircraftType, BigDecimal economyPrice) {
         this.flightNumber = flightNumber;
-        this.airline = airline;
-        this.originAirport = originAirport;
-        this.originCity = originCity;
-        this.destinationAirport = destinationAirport;
-        this.destinationCity = destinationCity;
+        this.airlineId = CodeDictionary.AIRLINES.encode(airline);
+        this.originAirportId = CodeDictionary.AIRPORTS.encode(originAirport);
+        this.originCityId = CodeDictionary.CITIES.encode(originCity);
+        this.destinationAirportId = CodeDictionary.AIRPORTS.encode(destinationAirport);
+        this.destinationCityId = CodeDictionary.CITIES.encode(destinationCity);
         this.departureTime = departureTime;
         this.arrivalTime = arrivalTime;
-        this.aircraftType = aircraftType;
-        this.economyPrice = economyPrice;
+        this.aircraftLayout = AircraftLayout.of(aircraftType);
+        this.fares[ECONOMY] = Money.fromDecimal(economyPrice);
     }
     
     // Business methods
-    public boolean hasSeatsAvailable(String travelClass, int requestedSeats) {
-        switch (travelClass.toLowerCase()) {
-            case "economy":
-                return economyAvailable >= requestedSeats;
-            case "business":
-                return businessAvailable >= requestedSeats;
-            case "first":
-                return firstClassAvailable >= requestedSeats;
-            default:
-                return false;
-        }
+    public boolean hasSeatsAvailable(TravelClass travelClass, int requestedSeats) {
+        return available[travelClass.ordinal()] >= requestedSeats;
     }
     
-    public BigDecimal getPriceForClass(String travelClass) {
-        switch (travelClass.toLowerCase()) {
-            case "economy":
-                return economyPrice;
-            case "business":
-                return businessPrice;
-            case "first":
-                return firstClassPrice;
-            default:
-                return economyPrice;
-        }
+    public BigDecimal getPriceForClass(TravelClass travelClass) {
+        return price(travelClass.ordinal());
     }
     
-    public void reserveSeats(String travelClass, int seats) {
-        switch (travelClass.toLowerCase()) {
-            case "economy":
-                economyAvailable = Math.max(0, economyAvailable - seats);
-                break;
-            case "business":
-                businessAvailable = Math.max(0, businessAvailable - seats);
-                break;
-            case "first":
-                firstClassAvailable = Math.max(0, firstClassAvailable - seats);
-                break;
+    /**
+     * Fare in Money minor units, or Money.NONE if the cabin has no price.
+     * Allocation-free; use for comparisons, sorting and totals.
+     */
+    public long getFareForClass(TravelClass travelClass) {
+        return fares[travelClass.ordinal()];
+    }
+    
+    public boolean reserveSeats(TravelClass travelClass, int count) {
+        int cabin = travelClass.ordinal();
+        if (count <= 0 || available[cabin] < count) {
+            return false;
         }
+        available[cabin] -= count;
+        return true;
     }
     
-    public void releaseSeats(String travelClass, int seats) {
-        switch (travelClass.toLowerCase()) {
-            case "economy":
-                economyAvailable = Math.min(economySeats, economyAvailable + seats);
-                break;
-            case "business":
-                businessAvailable = Math.min(businessSeats, businessAvailable + seats);
-                break;
-            case "first":
-                firstClassAvailable = Math.min(firstClassSeats, firstClassAvailable + seats);
-                break;
+    public boolean releaseSeats(TravelClass travelClass, int count) {
+        int cabin = travelClass.ordinal();
+        if (count <= 0 || available[cabin] + count > seats[cabin]) {
+            return false;
         }
+        available[cabin] += count;
+        return true;
+    }
+    
+    // String variants parse the class code once and delegate; prefer the
+    // TravelClass overloads on hot paths
+    public boolean hasSeatsAvailable(String travelClass, int requestedSeats) {
+        TravelClass parsed = TravelClass.fromCode(travelClass);
+        return parsed != null && hasSeatsAvailable(parsed, requestedSeats);
+    }
+    
+    public BigDecimal getPriceForClass(String travelClass) {
+        TravelClass parsed = TravelClass.fromCode(travelClass);
+        return getPriceForClass(parsed != null ? parsed : TravelClass.ECONOMY);
+    }
+    
+    public boolean reserveSeats(String travelClass, int count) {
+        TravelClass parsed = TravelClass.fromCode(travelClass);
+        return parsed != null && reserveSeats(parsed, count);
+    }
+    
+    public boolean releaseSeats(String travelClass, int count) {
+        TravelClass parsed = TravelClass.fromCode(travelClass);
+        return parsed != null && releaseSeats(parsed, count);
     }
     
     // Getters and Setters
@@ -219,20 +222,50 @@ public class Flight {
     public String getFlightNumber() { return flightNumber; }
     public void setFlightNumber(String flightNumber) { this.flightNumber = flightNumber; }
     
-    public String getAirline() { return airline; }
-    public void setAirline(String airline) { this.airline = airline; }
+    @NotBlank(message = "Airline is required")
+    @Size(max = 50, message = "Airline name must be at most 50 characters")
+    @Access(AccessType.PROPERTY)
+    @Column(name = "airline", nullable = false)
+    public String getAirline() { return CodeDictionary.AIRLINES.decode(airlineId); }
+    public void setAirline(String airline) { this.airlineId = CodeDictionary.AIRLINES.encode(airline); }
+    
+    public int getAirlineId() { return airlineId; }
     
-    public String getOriginAirport() { return originAirport; }
-    public void setOriginAirport(String originAirport) { this.originAirport = originAirport; }
+    @NotBlank(message = "Origin airport is required")
+    @Size(max = 10, message = "Origin airport code must be at most 10 characters")
+    @Access(AccessType.PROPERTY)
+    @Column(name = "origin_airport", nullable = false)
+    public String getOriginAirport() { return CodeDictionary.AIRPORTS.decode(originAirportId); }
+    public void setOriginAirport(String originAirport) { this.originAirportId = CodeDictionary.AIRPORTS.encode(originAirport); }
+    
+    public int getOriginAirportId() { return originAirportId; }
+    
+    @NotBlank(message = "Origin city is required")
+    @Size(max = 100, message = "Origin city must be at most 100 characters")
+    @Access(AccessType.PROPERTY)
+    @Column(name = "origin_city", nullable = false)
+    public String getOriginCity() { return CodeDictionary.CITIES.decode(originCityId); }
+    public void setOriginCity(String originCity) { this.originCityId = CodeDictionary.CITIES.encode(originCity); }
     
-    public String getOriginCity() { return originCity; }
-    public void setOriginCity(String originCity) { this.originCity = originCity; }
+    public int getOriginCityId() { return originCityId; }
     
-    public String getDestinationAirport() { return destinationAirport; }
-    public void setDestinationAirport(String destinationAirport) { this.destinationAirport = destinationAirport; }
+    @NotBlank(message = "Destination airport is required")
+    @Size(max = 10, message = "Destination airport code must be at most 10 characters")
+    @Access(AccessType.PROPERTY)
+    @Column(name = "destination_airport", nullable = false)
+    public String getDestinationAirport() { return CodeDictionary.AIRPORTS.decode(destinationAirportId); }
+    public void setDestinationAirport(String destinationAirport) { this.destinationAirportId = CodeDictionary.AIRPORTS.encode(destinationAirport); }
+    
+    public int getDestinationAirportId() { return destinationAirportId; }
+    
+    @NotBlank(message = "Destination city is required")
+    @Size(max = 100, message = "Destination city must be at most 100 characters")
+    @Access(AccessType.PROPERTY)
+    @Column(name = "destination_city", nullable = false)
+    public String getDestinationCity() { return CodeDictionary.CITIES.decode(destinationCityId); }
+    public void setDestinationCity(String destinationCity) { this.destinationCityId = CodeDictionary.CITIES.encode(destinationCity); }
     
-    public String getDestinationCity() { return destinationCity; }
-    public void setDestinationCity(String destinationCity) { this.destinationCity = destinationCity; }
+    public int getDestinationCityId() { return destinationCityId; }
     
     public LocalDateTime getDepartureTime() { return departureTime; }
     public void setDepartureTime(LocalDateTime departureTime) { this.departureTime = departureTime; }
@@ -240,39 +273,146 @@ public class Flight {
     public LocalDateTime getArrivalTime() { return arrivalTime; }
     public void setArrivalTime(LocalDateTime arrivalTime) { this.arrivalTime = arrivalTime; }
     
-    public String getAircraftType() { return aircraftType; }
-    public void setAircraftType(String aircraftType) { this.aircraftType = aircraftType; }
+    @NotBlank(message = "Aircraft type is required")
+    @Size(max = 50, message = "Aircraft type must be at most 50 characters")
+    @Access(AccessType.PROPERTY)
+    @Column(name = "aircraft_type", nullable = false)
+    public String getAircraftType() { return aircraftLayout == null ? null : aircraftLayout.getCode(); }
+    public void setAircraftType(String aircraftType) { this.aircraftLayout = AircraftLayout.of(aircraftType); }
+    
+    public AircraftLayout getAircraftLayout() { return aircraftLayout; }
+    public void setAircraftLayout(AircraftLayout aircraftLayout) { this.aircraftLayout = aircraftLayout; }
+    
+    public int getSeats(TravelClass travelClass) { return seats[travelClass.ordinal()]; }
+    public void setSeats(TravelClass travelClass, int count) { seats[travelClass.ordinal()] = count; }
+    
+    public int getAvailable(TravelClass travelClass) { return available[travelClass.ordinal()]; }
+    public void setAvailable(TravelClass travelClass, int count) { available[travelClass.ordinal()] = count; }
+    
+    public void setPrice(TravelClass travelClass, BigDecimal price) { setFare(travelClass.ordinal(), Money.fromDecimal(price)); }
+    public void setFare(TravelClass travelClass, long fare) { setFare(travelClass.ordinal(), fare); }
+    
+    // Per-cabin column properties
+    @NotNull(message = "Economy price is required")
+    @DecimalMin(value = "0.0", inclusive = false, message = "Economy price must be greater than 0")
+    @Access(AccessType.PROPERTY)
+    @Column(name = "economy_price", precision = 10, scale = 2, nullable = false)
+    public BigDecimal getEconomyPrice() { return price(ECONOMY); }
+    public void setEconomyPrice(BigDecimal economyPrice) { setFare(ECONOMY, Money.fromDecimal(economyPrice)); }
+    
+    @DecimalMin(value = "0.0", inclusive = false, message = "Premium economy price must be greater than 0")
+    @Access(AccessType.PROPERTY)
+    @Column(name = "premium_economy_price", precision = 10, scale = 2)
+    public BigDecimal getPremiumEconomyPrice() { return price(PREMIUM_ECONOMY); }
+    public void setPremiumEconomyPrice(BigDecimal premiumEconomyPrice) { setFare(PREMIUM_ECONOMY, Money.fromDecimal(premiumEconomyPrice)); }
+    
+    @DecimalMin(value = "0.0", inclusive = false, message = "Business price must be greater than 0")
+    @Access(AccessType.PROPERTY)
+    @Column(name = "business_price", precision = 10, scale = 2)
+    public BigDecimal getBusinessPrice() { return price(BUSINESS); }
+    public void setBusinessPrice(BigDecimal businessPrice) { setFare(BUSINESS, Money.fromDecimal(businessPrice)); }
+    
+    @DecimalMin(value = "0.0", inclusive = false, message = "First class price must be greater than 0")
+    @Access(AccessType.PROPERTY)
+    @Column(name = "first_class_price", precision = 10, scale = 2)
+    public BigDecimal getFirstClassPrice() { return price(FIRST); }
+    public void setFirstClassPrice(BigDecimal firstClassPrice) { setFare(FIRST, Money.fromDecimal(firstClassPrice)); }
     
-    public BigDecimal getEconomyPrice() { return economyPrice; }
-    public void setEconomyPrice(BigDecimal economyPrice) { this.economyPrice = economyPrice; }
+    @Min(value = 1, message = "Economy seats must be at least 1")
+    @Access(AccessType.PROPERTY)
+    @Column(name = "economy_seats", nullable = false)
+    public Integer getEconomySeats() { return seats[ECONOMY]; }
+    public void setEconomySeats(Integer economySeats) { seats[ECONOMY] = valueOf(economySeats); }
     
-    public BigDecimal getBusinessPrice() { return businessPrice; }
-    public void setBusinessPrice(BigDecimal businessPrice) { this.businessPrice = businessPrice; }
+    @Min(value = 0, message = "Premium economy seats cannot be negative")
+    @Access(AccessType.PROPERTY)
+    @Column(name = "premium_economy_seats")
+    public Integer getPremiumEconomySeats() { return seats[PREMIUM_ECONOMY]; }
+    public void setPremiumEconomySeats(Integer premiumEconomySeats) { seats[PREMIUM_ECONOMY] = valueOf(premiumEconomySeats); }
     
-    public BigDecimal getFirstClassPrice() { return firstClassPrice; }
-    public void setFirstClassPrice(BigDecimal firstClassPrice) { this.firstClassPrice = firstClassPrice; }
+    @Min(value = 0, message = "Business seats cannot be negative")
+    @Access(AccessType.PROPERTY)
+    @Column(name = "business_seats")
+    public Integer getBusinessSeats() { return seats[BUSINESS]; }
+    public void setBusinessSeats(Integer businessSeats) { seats[BUSINESS] = valueOf(businessSeats); }
     
-    public Integer getEconomySeats() { return economySeats; }
-    public void setEconomySeats(Integer economySeats) { this.economySeats = economySeats; }
+    @Min(value = 0, message = "First class seats cannot be negative")
+    @Access(AccessType.PROPERTY)
+    @Column(name = "first_class_seats")
+    public Integer getFirstClassSeats() { return seats[FIRST]; }
+    public void setFirstClassSeats(Integer firstClassSeats) { seats[FIRST] = valueOf(firstClassSeats); }
     
-    public Integer getBusinessSeats() { return businessSeats; }
-    public void setBusinessSeats(Integer businessSeats) { this.businessSeats = businessSeats; }
+    @Access(AccessType.PROPERTY)
+    @Column(name = "economy_available")
+    public Integer getEconomyAvailable() { return available[ECONOMY]; }
+    public void setEconomyAvailable(Integer economyAvailable) { available[ECONOMY] = valueOf(economyAvailable); }
     
-    public Integer getFirstClassSeats() { return firstClassSeats; }
-    public void setFirstClassSeats(Integer firstClassSeats) { this.firstClassSeats = firstClassSeats; }
+    @Access(AccessType.PROPERTY)
+    @Column(name = "premium_economy_available")
+    public Integer getPremiumEconomyAvailable() { return available[PREMIUM_ECONOMY]; }
+    public void setPremiumEconomyAvailable(Integer premiumEconomyAvailable) { available[PREMIUM_ECONOMY] = valueOf(premiumEconomyAvailable); }
     
-    public Integer getEconomyAvailable() { return economyAvailable; }
-    public void setEconomyAvailable(Integer economyAvailable) { this.economyAvailable = economyAvailable; }
+    @Access(AccessType.PROPERTY)
+    @Column(name = "business_available")
+    public Integer getBusinessAvailable() { return available[BUSINESS]; }
+    public void setBusinessAvailable(Integer businessAvailable) { available[BUSINESS] = valueOf(businessAvailable); }
     
-    public Integer getBusinessAvailable() { return businessAvailable; }
-    public void setBusinessAvailable(Integer businessAvailable) { this.businessAvailable = businessAvailable; }
+    @Access(AccessType.PROPERTY)
+    @Column(name = "first_class_available")
+    public Integer getFirstClassAvailable() { return available[FIRST]; }
+    public void setFirstClassAvailable(Integer firstClassAvailable) { available[FIRST] = valueOf(firstClassAvailable); }
     
-    public Integer getFirstClassAvailable() { return firstClassAvailable; }
-    public void setFirstClassAvailable(Integer firstClassAvailable) { this.firstClassAvailable = firstClassAvailable; }
+    private BigDecimal price(int cabin) {
+        long fare = fares[cabin];
+        if (!Money.isPresent(fare)) {
+            return null;
+        }
+        if (prices == null) {
+            prices = new BigDecimal[TravelClass.COUNT];
+        }
+        BigDecimal price = prices[cabin];
+        if (price == null) {
+            price = prices[cabin] = Money.toDecimal(fare);
+        }
+        return price;
+    }
+    
+    private void setFare(int cabin, long fare) {
+        fares[cabin] = fare;
+        if (prices != null) {
+            prices[cabin] = null;
+        }
+    }
+    
+    private static long[] unpriced() {
+        long[] fares = new long[TravelClass.COUNT];
+        Arrays.fill(fares, Money.NONE);
+        return fares;
+    }
+    
+    private static int valueOf(Integer count) {
+        return count == null ? 0 : count;
+    }
     
     public FlightStatus getStatus() { return status; }
+    
+    /**
+     * Sets the status as stored, without checking the transition; use
+     * transitionTo for status changes
+     */
     public void setStatus(FlightStatus status) { this.status = status; }
     
+    /**
+     * Moves the flight to a new status, rejecting transitions the status
+     * state machine does not allow (e.g. ARRIVED to BOARDING)
+     */
+    public void transitionTo(FlightStatus next) {
+        if (status != null && !status.canTransitionTo(next)) {
+            throw new IllegalStateException("Flight " + flightNumber + " cannot go from " + status + " to " + next);
+        }
+        this.status = next;
+    }
+    
     public String getGate() { return gate; }
     public void setGate(String gate) { this.gate = gate; }
     
@@ -288,6 +428,9 @@ public class Flight {
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
     
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+    
     public List<Booking> getBookings() { return bookings; }
     public void setBookings(List<Booking> bookings) { this.bookings = bookings; }
     
@@ -310,23 +453,10 @@ public class Flight {
         return "Flight{" +
                 "id=" + id +
                 ", flightNumber='" + flightNumber + '\'' +
-                ", originCity='" + originCity + '\'' +
-                ", destinationCity='" + destinationCity + '\'' +
+                ", originCity='" + getOriginCity() + '\'' +
+                ", destinationCity='" + getDestinationCity() + '\'' +
                 ", departureTime=" + departureTime +
                 ", status=" + status +
                 '}';
     }
-}
-
-/**
- * Flight Status Enumeration
- */
-enum FlightStatus {
-    SCHEDULED,
-    BOARDING,
-    DEPARTED,
-    IN_FLIGHT,
-    ARRIVED,
-    DELAYED,
-    CANCELLED
 }
\ No newline at end of file
@@ -0,0 +1,6 @@
+-- Flight version column migration (PostgreSQL)
+-- Adds the optimistic locking column mapped by Flight's @Version. Existing
+-- rows start at version 0; FlightSeatRepository's conditional updates bump
+-- it with every seat count change, so stale entities cannot overwrite them.
+
+ALTER TABLE flights ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,8 @@
+-- Premium economy columns migration (PostgreSQL)
+-- Adds the premium economy cabin mapped by Flight. The columns are nullable
+-- like the business and first class ones; existing flights get no premium
+-- economy fare (NULL, Money.NONE in the entity) and no seats.
+
+ALTER TABLE flights ADD COLUMN premium_economy_price NUMERIC(10, 2);
+ALTER TABLE flights ADD COLUMN premium_economy_seats INTEGER DEFAULT 0;
+ALTER TABLE flights ADD COLUMN premium_economy_available INTEGER DEFAULT 0;